@@ -58,6 +58,8 @@
             'prefix_indexes' => true,
             'strict' => true,
             'engine' => null,
+            // sensor_readings.bucket_hour/bucket_day are computed in the session time zone
+            'timezone' => env('DB_TIMEZONE', '+00:00'),
             'options' => extension_loaded('pdo_mysql') ? array_filter([
                 PDO::MYSQL_ATTR_SSL_CA => env('MYSQL_ATTR_SSL_CA'),
             ]) : [],
@@ -78,6 +80,8 @@
             'prefix_indexes' => true,
             'strict' => true,
             'engine' => null,
+            // sensor_readings.bucket_hour/bucket_day are computed in the session time zone
+            'timezone' => env('DB_TIMEZONE', '+00:00'),
             'options' => extension_loaded('pdo_mysql') ? array_filter([
                 PDO::MYSQL_ATTR_SSL_CA => env('MYSQL_ATTR_SSL_CA'),
             ]) : [],
@@ -11,6 +11,11 @@
      */
     public function up(): void
     {
+        // java-backend (Flyway V1) creates the same table; skip when it ran first
+        if (Schema::hasTable('sensors')) {
+            return;
+        }
+
         Schema::create('sensors', function (Blueprint $table) {
             $table->id();
             $table->string('node_id')->unique(); // esp32_node1, esp32_node2, etc.
@@ -11,6 +11,11 @@
      */
     public function up(): void
     {
+        // java-backend (Flyway V1) creates the same table; skip when it ran first
+        if (Schema::hasTable('sensor_readings')) {
+            return;
+        }
+
         Schema::create('sensor_readings', function (Blueprint $table) {
             $table->id();
             $table->foreignId('sensor_id')->constrained()->cascadeOnDelete();
@@ -8,6 +8,11 @@
 {
     public function up(): void
     {
+        // Already in place when java-backend (Flyway V1) created the table
+        if (Schema::hasIndex('sensors', 'sensors_node_id_sensor_type_unique')) {
+            return;
+        }
+
         Schema::table('sensors', function (Blueprint $table) {
             // Allow multiple sensors per node; keep uniqueness on topic and per type within a node.
             $table->dropUnique(['node_id']);
@@ -8,6 +8,11 @@
 {
     public function up(): void
     {
+        // java-backend (Flyway V1) creates the same table; skip when it ran first
+        if (Schema::hasTable('api_tokens')) {
+            return;
+        }
+
         Schema::create('api_tokens', function (Blueprint $table) {
             $table->id();
             $table->string('name');
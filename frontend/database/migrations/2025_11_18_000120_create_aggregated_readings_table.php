@@ -8,6 +8,11 @@
 {
     public function up(): void
     {
+        // java-backend (Flyway V1) creates the same table; skip when it ran first
+        if (Schema::hasTable('aggregated_readings')) {
+            return;
+        }
+
         Schema::create('aggregated_readings', function (Blueprint $table) {
             $table->id();
             $table->foreignId('sensor_id')->constrained('sensors')->cascadeOnDelete();
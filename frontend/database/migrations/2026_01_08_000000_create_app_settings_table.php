@@ -8,6 +8,11 @@
 {
     public function up(): void
     {
+        // java-backend (Flyway V1) creates the same table; skip when it ran first
+        if (Schema::hasTable('app_settings')) {
+            return;
+        }
+
         Schema::create('app_settings', function (Blueprint $table) {
             $table->id();
             $table->string('key')->unique();
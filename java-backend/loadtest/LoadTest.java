@@ -0,0 +1,261 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mixed-load driver for java-backend. Runs a weighted mix of dashboard polls,
+ * aggregates, anomaly queries and exports with N closed-loop workers, reports
+ * p50/p99/throughput per endpoint and exits non-zero when an SLO or the stored
+ * baseline is broken.
+ *
+ * <pre>
+ * java loadtest/LoadTest.java --base-url=http://127.0.0.1:18090 --concurrency=32 --duration=60
+ * java loadtest/LoadTest.java ... --write-baseline      # store this run as the new baseline
+ * </pre>
+ *
+ * No dependencies: runs directly with {@code java LoadTest.java} (JDK 21).
+ */
+public class LoadTest {
+    record Endpoint(String name, int weight, String pathTemplate, boolean needsToken) {}
+
+    static final List<Endpoint> MIX = List.of(
+            new Endpoint("sensors", 30, "/api/sensors", false),
+            new Endpoint("stream", 10, "/api/sensors/stream?limit=10", false),
+            new Endpoint("statistics", 10, "/api/sensors/statistics?hours=24", false),
+            new Endpoint("readings", 15, "/api/sensors/{id}/readings?hours=2&limit=20", false),
+            new Endpoint("aggregates", 15, "/api/sensors/{id}/aggregates?hours=24&period=hour", false),
+            new Endpoint("anomalies", 10, "/api/sensors/{id}/anomalies?hours=6&z=3.0", false),
+            new Endpoint("export", 2, "/api/export/sensors/{id}.csv?hours=6", true)
+    );
+
+    static final class Recorder {
+        final ConcurrentLinkedQueue<Long> nanos = new ConcurrentLinkedQueue<>();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    record Result(String name, long count, long errors, double rps, double p50Ms, double p99Ms, double maxMs) {}
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = parseArgs(argv);
+        String baseUrl = args.getOrDefault("base-url", "http://127.0.0.1:8081");
+        int concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        int durationS = Integer.parseInt(args.getOrDefault("duration", "60"));
+        int warmupS = Integer.parseInt(args.getOrDefault("warmup", "10"));
+        String token = args.getOrDefault("api-token", "dev-12345");
+        double tolerance = Double.parseDouble(args.getOrDefault("tolerance", "0.25"));
+        Path dir = Path.of(args.getOrDefault("dir", "loadtest"));
+        Path baselineFile = dir.resolve(args.getOrDefault("baseline", "baseline.properties"));
+        Path sloFile = dir.resolve("slo.properties");
+        long seed = Long.parseLong(args.getOrDefault("seed", "7"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<Long> sensorIds = fetchSensorIds(client, baseUrl);
+        if (sensorIds.isEmpty()) {
+            System.err.println("No sensors at " + baseUrl + "/api/sensors - seed data first (app.workload.mode=backfill)");
+            System.exit(2);
+        }
+
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        for (Endpoint e : MIX) recorders.put(e.name(), new Recorder());
+        int totalWeight = MIX.stream().mapToInt(Endpoint::weight).sum();
+
+        System.out.printf(Locale.ROOT, "Load test: %d workers, %ds warm-up + %ds measured, %d sensors, %s%n",
+                concurrency, warmupS, durationS, sensorIds.size(), baseUrl);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupS);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationS);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                Random rnd = new Random(seed + w);
+                workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        Endpoint e = pick(rnd, totalWeight);
+                        String path = e.pathTemplate().replace("{id}", String.valueOf(sensorIds.get(rnd.nextInt(sensorIds.size()))));
+                        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(30))
+                                .header("Accept", "application/json");
+                        if (e.needsToken()) req.header("X-API-Token", token);
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<byte[]> resp = client.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+                            ok = resp.statusCode() == 200;
+                        } catch (IOException ex) {
+                            ok = false;
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return null;
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 < measureFrom) continue;
+                        Recorder r = recorders.get(e.name());
+                        if (ok) r.nanos.add(t1 - t0);
+                        else r.errors.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (var entry : recorders.entrySet()) {
+            long[] sorted = entry.getValue().nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            results.add(new Result(entry.getKey(), sorted.length, entry.getValue().errors.get(), sorted.length / (double) durationS,
+                    pct(sorted, 0.50), pct(sorted, 0.99), sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+        }
+        long totalOk = results.stream().mapToLong(Result::count).sum();
+        long totalErr = results.stream().mapToLong(Result::errors).sum();
+        results.add(new Result("total", totalOk, totalErr, totalOk / (double) durationS, Double.NaN, Double.NaN, Double.NaN));
+        print(results);
+
+        if (args.containsKey("write-baseline")) {
+            writeBaseline(baselineFile, results, concurrency, durationS);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+
+        List<String> failures = new ArrayList<>();
+        checkSlo(sloFile, results, failures);
+        checkBaseline(baselineFile, results, tolerance, concurrency, failures);
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            System.out.println("FAIL");
+            failures.forEach(f -> System.out.println("  - " + f));
+            System.exit(1);
+        }
+    }
+
+    static Endpoint pick(Random rnd, int totalWeight) {
+        int x = rnd.nextInt(totalWeight);
+        for (Endpoint e : MIX) {
+            x -= e.weight();
+            if (x < 0) return e;
+        }
+        return MIX.get(MIX.size() - 1);
+    }
+
+    static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1e6;
+    }
+
+    static List<Long> fetchSensorIds(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> resp = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/sensors"))
+                .header("Accept", "application/json").build(), HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        Matcher m = Pattern.compile("\"id\"\\s*:\\s*(\\d+)").matcher(resp.body());
+        while (m.find()) ids.add(Long.parseLong(m.group(1)));
+        return ids;
+    }
+
+    static void print(List<Result> results) {
+        System.out.printf(Locale.ROOT, "%-12s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Result r : results) {
+            if (Double.isNaN(r.p50Ms())) {
+                System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f%n", r.name(), r.count(), r.errors(), r.rps());
+            } else {
+                System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                        r.name(), r.count(), r.errors(), r.rps(), r.p50Ms(), r.p99Ms(), r.maxMs());
+            }
+        }
+    }
+
+    /** slo.properties: {@code <endpoint>.p99_ms} limits and {@code max_error_rate}. */
+    static void checkSlo(Path file, List<Result> results, List<String> failures) throws IOException {
+        Properties slo = load(file);
+        if (slo == null) return;
+        double maxErrorRate = Double.parseDouble(slo.getProperty("max_error_rate", "0.01"));
+        for (Result r : results) {
+            long n = r.count() + r.errors();
+            if (n > 0 && r.errors() / (double) n > maxErrorRate) {
+                failures.add(String.format(Locale.ROOT, "%s error rate %.2f%% > %.2f%%", r.name(), 100.0 * r.errors() / n, 100 * maxErrorRate));
+            }
+            String limit = slo.getProperty(r.name() + ".p99_ms");
+            if (limit != null && r.p99Ms() > Double.parseDouble(limit)) {
+                failures.add(String.format(Locale.ROOT, "%s p99 %.2f ms > SLO %s ms", r.name(), r.p99Ms(), limit));
+            }
+        }
+    }
+
+    static void checkBaseline(Path file, List<Result> results, double tolerance, int concurrency, List<String> failures) throws IOException {
+        Properties base = load(file);
+        if (base == null) {
+            System.out.println("No baseline at " + file + " (run with --write-baseline to record one); only SLOs checked");
+            return;
+        }
+        String baseConcurrency = base.getProperty("concurrency");
+        if (baseConcurrency != null && Integer.parseInt(baseConcurrency) != concurrency) {
+            System.out.println("Baseline was recorded with concurrency " + baseConcurrency + ", comparing anyway");
+        }
+        for (Result r : results) {
+            compare(base, r.name() + ".p50_ms", r.p50Ms(), tolerance, true, failures);
+            compare(base, r.name() + ".p99_ms", r.p99Ms(), tolerance, true, failures);
+            compare(base, r.name() + ".rps", r.rps(), tolerance, false, failures);
+        }
+    }
+
+    static void compare(Properties base, String key, double actual, double tolerance, boolean lowerIsBetter, List<String> failures) {
+        String v = base.getProperty(key);
+        if (v == null || Double.isNaN(actual)) return;
+        double expected = Double.parseDouble(v);
+        boolean regressed = lowerIsBetter ? actual > expected * (1 + tolerance) : actual < expected * (1 - tolerance);
+        if (regressed) {
+            failures.add(String.format(Locale.ROOT, "%s regressed: %.2f vs baseline %.2f (tolerance %.0f%%)", key, actual, expected, 100 * tolerance));
+        }
+    }
+
+    static void writeBaseline(Path file, List<Result> results, int concurrency, int durationS) throws IOException {
+        // sorted keys so baseline diffs stay readable
+        TreeMap<String, String> p = new TreeMap<>();
+        p.put("concurrency", String.valueOf(concurrency));
+        p.put("duration_s", String.valueOf(durationS));
+        for (Result r : results) {
+            p.put(r.name() + ".rps", String.format(Locale.ROOT, "%.1f", r.rps()));
+            if (!Double.isNaN(r.p50Ms())) {
+                p.put(r.name() + ".p50_ms", String.format(Locale.ROOT, "%.2f", r.p50Ms()));
+                p.put(r.name() + ".p99_ms", String.format(Locale.ROOT, "%.2f", r.p99Ms()));
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("# java-backend load test baseline");
+        p.forEach((k, v) -> lines.add(k + "=" + v));
+        Files.write(file, lines);
+    }
+
+    static Properties load(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            p.load(in);
+        }
+        return p;
+    }
+
+    static Map<String, String> parseArgs(String[] argv) {
+        Map<String, String> out = new HashMap<>();
+        for (String a : argv) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) out.put(a.substring(2), "true");
+            else out.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return out;
+    }
+}
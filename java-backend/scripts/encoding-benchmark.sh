@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compară JSON / CBOR / Smile (cu și fără gzip): bytes pe fir, latență și CPU server pe cerere.
+#
+#   scripts/encoding-benchmark.sh <sensorId> [requests]
+#
+# BASE_URL (implicit http://127.0.0.1:8081), API_TOKEN (implicit dev-12345), HOURS (implicit 24).
+# SERVER_PID = PID-ul procesului java-backend; dacă lipsește, coloana CPU nu se afișează (necesită /proc).
+set -euo pipefail
+
+SENSOR_ID="${1:?usage: $0 <sensorId> [requests]}"
+REQUESTS="${2:-50}"
+BASE_URL="${BASE_URL:-http://127.0.0.1:8081}"
+API_TOKEN="${API_TOKEN:-dev-12345}"
+HOURS="${HOURS:-24}"
+SERVER_PID="${SERVER_PID:-}"
+CLK_TCK=$(getconf CLK_TCK)
+
+cpu_ticks() {
+  # utime + stime din /proc/<pid>/stat (câmpurile 14 și 15)
+  awk '{print $14 + $15}' "/proc/$SERVER_PID/stat"
+}
+
+bench() {
+  local label="$1" url="$2" accept="$3" gzip="$4"
+  local args=(-s -o /dev/null -H "Accept: $accept" -H "X-API-Token: $API_TOKEN" -w '%{size_download} %{time_total}\n')
+  [[ "$gzip" == "gzip" ]] && args+=(-H "Accept-Encoding: gzip")
+  curl "${args[@]}" "$url" >/dev/null # warm-up
+  local before=0 after=0
+  [[ -n "$SERVER_PID" ]] && before=$(cpu_ticks)
+  local stats
+  stats=$(for ((i = 0; i < REQUESTS; i++)); do curl "${args[@]}" "$url"; done \
+    | awk '{b += $1; t += $2} END {printf "%d %.2f", b / NR, 1000 * t / NR}')
+  [[ -n "$SERVER_PID" ]] && after=$(cpu_ticks)
+  local bytes ms
+  read -r bytes ms <<< "$stats"
+  if [[ -n "$SERVER_PID" ]]; then
+    local cpu_ms
+    cpu_ms=$(awk -v d=$((after - before)) -v hz="$CLK_TCK" -v n="$REQUESTS" 'BEGIN {printf "%.2f", 1000 * d / hz / n}')
+    printf '%-34s %10s B %9s ms %9s ms cpu\n' "$label" "$bytes" "$ms" "$cpu_ms"
+  else
+    printf '%-34s %10s B %9s ms\n' "$label" "$bytes" "$ms"
+  fi
+}
+
+for endpoint in "readings|$BASE_URL/api/sensors/$SENSOR_ID/readings?hours=$HOURS" \
+                "export|$BASE_URL/api/export/sensors/$SENSOR_ID.json?hours=$HOURS"; do
+  name="${endpoint%%|*}"
+  url="${endpoint#*|}"
+  echo "== $name ($REQUESTS requests, avg per request)"
+  for enc in "json|application/json" "cbor|application/cbor" "smile|application/x-jackson-smile"; do
+    bench "$name ${enc%%|*}" "$url" "${enc#*|}" identity
+    bench "$name ${enc%%|*} + gzip" "$url" "${enc#*|}" gzip
+  done
+done
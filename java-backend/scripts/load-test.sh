@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# Test de încărcare end-to-end: bază de date locală, date generate, backend pornit,
+# ingestie live în paralel cu mixul de citiri din loadtest/LoadTest.java.
+#
+#   scripts/load-test.sh                      # rulează și compară cu loadtest/baseline.properties
+#   scripts/load-test.sh --write-baseline     # înregistrează un baseline nou
+#
+# Variabile: LT_DB_PORT (3310), LT_PORT (18090), LT_SENSORS (200), LT_HOURS (24),
+# LT_CONCURRENCY (32), LT_DURATION (60), LT_INGEST_RATE (2000 citiri/s), LT_TOLERANCE (0.25).
+# Dacă LT_DB_PORT nu răspunde, pornește un container mysql:8 temporar (necesită docker).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+DB_PORT="${LT_DB_PORT:-3310}"
+PORT="${LT_PORT:-18090}"
+SENSORS="${LT_SENSORS:-200}"
+HOURS="${LT_HOURS:-24}"
+CONCURRENCY="${LT_CONCURRENCY:-32}"
+DURATION="${LT_DURATION:-60}"
+WARMUP="${LT_WARMUP:-10}"
+INGEST_RATE="${LT_INGEST_RATE:-2000}"
+TOLERANCE="${LT_TOLERANCE:-0.25}"
+CONTAINER="iot-loadtest-db"
+JAR="target/java-backend-0.1.0.jar"
+LOG_DIR="target/loadtest"
+mkdir -p "$LOG_DIR"
+
+pids=()
+started_container=""
+cleanup() {
+  for pid in "${pids[@]}"; do kill "$pid" 2>/dev/null || true; done
+  if [[ -n "$started_container" ]]; then docker rm -f "$CONTAINER" >/dev/null 2>&1 || true; fi
+}
+trap cleanup EXIT
+
+db_up() { (echo > "/dev/tcp/127.0.0.1/$DB_PORT") >/dev/null 2>&1; }
+
+if ! db_up; then
+  echo "Starting mysql:8 on port $DB_PORT"
+  docker run -d --rm --name "$CONTAINER" -p "$DB_PORT:3306" \
+    -e MYSQL_ROOT_PASSWORD=loadtest -e MYSQL_DATABASE=iot_loadtest mysql:8 >/dev/null
+  started_container=1
+  export DB_USERNAME=root DB_PASSWORD=loadtest
+  for _ in $(seq 1 60); do
+    docker exec "$CONTAINER" mysql -uroot -ploadtest -e "select 1" iot_loadtest >/dev/null 2>&1 && break
+    sleep 2
+  done
+fi
+export DB_HOST=127.0.0.1 DB_PORT="$DB_PORT" DB_DATABASE="${DB_DATABASE:-iot_loadtest}"
+
+echo "Building backend"
+mvn -q -B -DskipTests package spring-boot:repackage
+
+# Schema se creează prin migrațiile Flyway la prima pornire
+COMMON=(--app.cluster.enabled=false --app.db.migrate=true)
+
+echo "Seeding $SENSORS sensors x ${HOURS}h"
+java -jar "$JAR" "${COMMON[@]}" --spring.main.web-application-type=none --app.alerts.enabled=false \
+  --app.workload.mode=backfill --app.workload.sensors="$SENSORS" --app.workload.nodes=$(( (SENSORS + 3) / 4 )) \
+  --app.workload.hours="$HOURS" --app.workload.interval-seconds=60 > "$LOG_DIR/seed.log" 2>&1
+grep "Workload backfill finished" "$LOG_DIR/seed.log" || true
+
+echo "Starting backend on :$PORT"
+java -jar "$JAR" "${COMMON[@]}" --server.port="$PORT" --management.server.port=0 > "$LOG_DIR/backend.log" 2>&1 &
+pids+=($!)
+for _ in $(seq 1 120); do
+  curl -fs "http://127.0.0.1:$PORT/api/sensors" 2>/dev/null | grep -q '"success":true' && break
+  sleep 1
+done
+
+echo "Live ingestion at $INGEST_RATE readings/s"
+java -jar "$JAR" "${COMMON[@]}" --spring.main.web-application-type=none --app.alerts.enabled=false \
+  --app.workload.mode=live --app.workload.sensors="$SENSORS" --app.workload.nodes=$(( (SENSORS + 3) / 4 )) \
+  --app.workload.rate="$INGEST_RATE" --app.workload.duration-seconds=$(( WARMUP + DURATION )) > "$LOG_DIR/ingest.log" 2>&1 &
+ingest_pid=$!
+pids+=($ingest_pid)
+
+status=0
+java loadtest/LoadTest.java --base-url="http://127.0.0.1:$PORT" --concurrency="$CONCURRENCY" \
+  --duration="$DURATION" --warmup="$WARMUP" --tolerance="$TOLERANCE" "$@" || status=$?
+
+wait "$ingest_pid" 2>/dev/null || true
+echo "ingestion: $(grep -o 'Workload live finished: .*' "$LOG_DIR/ingest.log" || echo 'no report (see target/loadtest/ingest.log)')"
+if grep -q "not reached" "$LOG_DIR/ingest.log"; then
+  echo "FAIL: ingestion did not sustain $INGEST_RATE readings/s under read load"
+  status=1
+fi
+exit "$status"
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Dovezi înainte/după pentru migrațiile de indecși (V3, V4): EXPLAIN, EXPLAIN ANALYZE și timpi medii
+# pentru interogările backend-ului, capturate după fiecare pas de migrare.
+#
+#   scripts/migration-evidence.sh [sensorId] [runs]
+#
+# Pornește de la o bază cu date și fără V3/V4 aplicate (ex. schema Laravel + app.workload.mode=backfill)
+# și folosește aceleași variabile DB_* ca aplicația. Rezultatele: docs/migration-evidence/<pas>.txt,
+# care se comit împreună cu orice schimbare a migrațiilor V3/V4.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+SENSOR_ID="${1:-1}"
+RUNS="${2:-20}"
+OUT="docs/migration-evidence"
+JAR="target/java-backend-0.1.0.jar"
+mkdir -p "$OUT"
+
+MYSQL=(mysql -h"${DB_HOST:-127.0.0.1}" -P"${DB_PORT:-3306}" -u"${DB_USERNAME:-root}" -p"${DB_PASSWORD:-1408}"
+  --init-command="set time_zone = '+00:00'" "${DB_DATABASE:-iot}")
+[[ -f "$JAR" ]] || mvn -q -B -DskipTests package spring-boot:repackage
+
+AFTER=$(date -u -d '-24 hours' '+%Y-%m-%d %H:%M:%S')
+FROM_HOUR=$(date -u -d '-24 hours' '+%Y-%m-%d %H:00:00')
+FROM_DAY=$(date -u -d '-24 hours' '+%Y-%m-%d')
+
+# Interogări echivalente cu cele generate de SensorReadingRepository
+declare -A Q
+Q[stats]="select avg(value), min(value), max(value), count(*) from sensor_readings where sensor_id = $SENSOR_ID and created_at > '$AFTER'"
+Q[latest]="select id, value, created_at from sensor_readings where sensor_id = $SENSOR_ID and created_at > '$AFTER' order by created_at desc limit 20"
+Q[stream]="select r.id, r.value, r.created_at, s.sensor_type from sensor_readings r join sensors s on s.id = r.sensor_id order by r.created_at desc limit 10"
+Q[agg_hour_old]="select date_format(created_at, '%Y-%m-%d %H:00:00') as bucket, avg(value), min(value), max(value), count(*) from sensor_readings where sensor_id = $SENSOR_ID and created_at > '$AFTER' group by bucket order by bucket"
+Q[agg_day_old]="select date_format(created_at, '%Y-%m-%d 00:00:00') as bucket, avg(value), min(value), max(value), count(*) from sensor_readings where sensor_id = $SENSOR_ID and created_at > '$AFTER' group by bucket order by bucket"
+Q[agg_hour_new]="select bucket_hour, avg(value), min(value), max(value), count(*) from sensor_readings where sensor_id = $SENSOR_ID and bucket_hour >= '$FROM_HOUR' and created_at > '$AFTER' group by bucket_hour order by bucket_hour"
+Q[agg_day_new]="select timestamp(bucket_day), avg(value), min(value), max(value), count(*) from sensor_readings where sensor_id = $SENSOR_ID and bucket_day >= '$FROM_DAY' and created_at > '$AFTER' group by bucket_day order by bucket_day"
+
+migrate_to() {
+  java -Dspring.context.exit=onRefresh -jar "$JAR" --app.db.migrate=true --spring.flyway.target="$1" \
+    --spring.main.web-application-type=none --app.workload.mode=none >/dev/null
+}
+
+capture() {
+  local step="$1"; shift
+  local file="$OUT/$step.txt"
+  {
+    echo "# step: $step   sensor: $SENSOR_ID   runs: $RUNS"
+    "${MYSQL[@]}" -e "select version, description from flyway_schema_history where success = 1 order by installed_rank" 2>/dev/null || true
+    "${MYSQL[@]}" -e "show index from sensor_readings"
+    for name in "$@"; do
+      echo
+      echo "## $name"
+      echo "${Q[$name]}"
+      "${MYSQL[@]}" -e "explain ${Q[$name]}"
+      "${MYSQL[@]}" -e "explain analyze ${Q[$name]}" -s -r
+      local start end
+      start=$(date +%s%N)
+      for ((i = 0; i < RUNS; i++)); do "${MYSQL[@]}" -e "${Q[$name]}" >/dev/null; done
+      end=$(date +%s%N)
+      # include overhead-ul clientului mysql; comparabil între pași, nu absolut
+      echo "avg wall time: $(( (end - start) / RUNS / 1000 )) us"
+    done
+  } > "$file" 2>&1
+  echo "$file"
+}
+
+migrate_to 2
+capture before stats latest stream agg_hour_old agg_day_old
+migrate_to 3
+capture after-V3 stats latest stream agg_hour_old agg_day_old
+migrate_to 4
+capture after-V4 stats latest stream agg_hour_old agg_day_old agg_hour_new agg_day_new
+
+echo "Compare with: diff $OUT/before.txt $OUT/after-V3.txt; diff $OUT/after-V3.txt $OUT/after-V4.txt"
@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Timp până la primul răspuns reușit de la /api/sensors pentru fiecare variantă de pornire.
+#
+#   mvn -Pfast-start package          # jar AOT + target/fast-start/app.jsa
+#   mvn -Pnative package              # opțional, target/java-backend
+#   scripts/startup-benchmark.sh [runs]
+#
+# Folosește aceeași bază de date ca aplicația (DB_HOST, DB_PORT, DB_DATABASE, DB_USERNAME, DB_PASSWORD).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-18081}"
+TIMEOUT_S="${BENCH_TIMEOUT_S:-120}"
+DIR="target/fast-start"
+JAR="java-backend-0.1.0.jar"
+NATIVE="target/java-backend"
+
+if [[ ! -f "$DIR/$JAR" ]]; then
+  echo "Missing $DIR/$JAR — run: mvn -Pfast-start package" >&2
+  exit 1
+fi
+
+# Primul răspuns reușit, în ms de la lansarea procesului
+measure() {
+  local workdir="$1"; shift
+  local start end pid
+  start=$(date +%s%N)
+  (cd "$workdir" && exec "$@" --server.port="$PORT" --management.server.port=0 --app.workload.mode=none >/dev/null 2>&1) &
+  pid=$!
+  while true; do
+    if curl -fs "http://127.0.0.1:$PORT/api/sensors" 2>/dev/null | grep -q '"success":true'; then
+      end=$(date +%s%N)
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "process exited before serving" >&2
+      return 1
+    fi
+    if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_S )); then
+      kill "$pid" 2>/dev/null || true
+      echo "timeout" >&2
+      return 1
+    fi
+    sleep 0.02
+  done
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+run_variant() {
+  local name="$1"; shift
+  local samples=()
+  for ((i = 0; i < RUNS; i++)); do
+    samples+=("$(measure "$@")")
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${samples[@]}" | sort -n)
+  local median min max
+  median=$(echo "$sorted" | sed -n "$(( (RUNS + 1) / 2 ))p")
+  min=$(echo "$sorted" | head -1)
+  max=$(echo "$sorted" | tail -1)
+  printf '%-10s median %6d ms   min %6d ms   max %6d ms   (%d runs)\n' "$name" "$median" "$min" "$max" "$RUNS"
+}
+
+echo "time-to-first-successful /api/sensors"
+run_variant "jvm" "$DIR" java -jar "$JAR"
+run_variant "aot" "$DIR" java -Dspring.aot.enabled=true -jar "$JAR"
+if [[ -f "$DIR/app.jsa" ]]; then
+  run_variant "aot+cds" "$DIR" java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar "$JAR"
+else
+  echo "aot+cds    skipped (no $DIR/app.jsa)"
+fi
+if [[ -x "$NATIVE" ]]; then
+  run_variant "native" . "$NATIVE"
+else
+  echo "native     skipped (no $NATIVE; mvn -Pnative package)"
+fi
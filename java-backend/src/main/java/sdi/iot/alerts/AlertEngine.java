@@ -0,0 +1,250 @@
+package sdi.iot.alerts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import sdi.iot.cluster.SensorOwnershipChanged;
+import sdi.iot.cluster.SensorOwnershipService;
+import sdi.iot.model.AlertRule;
+import sdi.iot.model.Sensor;
+import sdi.iot.repo.AlertRuleRepository;
+import sdi.iot.repo.SensorRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluates alert rules against each reading with constant per-rule state
+ * (last value, EWMA mean/variance, active flag) instead of range queries.
+ *
+ * A rule fires once when it starts breaching and resolves once it is back
+ * inside its threshold minus {@code hysteresis}; while active it is not
+ * re-emitted, and {@code cooldown_seconds} spaces consecutive firings.
+ * Only sensors owned by this instance are tracked (see {@link SensorOwnershipService}).
+ */
+@Service
+public class AlertEngine {
+    private static final Logger log = LoggerFactory.getLogger(AlertEngine.class);
+
+    private final AlertRuleRepository rules;
+    private final SensorRepository sensors;
+    private final SensorOwnershipService ownership;
+    private final ApplicationEventPublisher events;
+
+    private volatile Map<Long, List<AlertRule>> rulesBySensor = Map.of();
+    private final ConcurrentHashMap<Long, SensorState> states = new ConcurrentHashMap<>();
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+
+    public AlertEngine(AlertRuleRepository rules, SensorRepository sensors,
+                       SensorOwnershipService ownership, ApplicationEventPublisher events) {
+        this.rules = rules; this.sensors = sensors; this.ownership = ownership; this.events = events;
+    }
+
+    public record ActiveAlert(long ruleId, long sensorId, String kind, Instant since) {}
+
+    public record Stats(long readings, double avgMicros, long emitted, int rules, int trackedSensors) {}
+
+    @Scheduled(fixedDelayString = "${app.alerts.rules-refresh-ms:30000}")
+    public void reloadRules() {
+        try {
+            List<AlertRule> enabled = rules.findByEnabledTrue();
+            Map<Long, List<AlertRule>> next = new HashMap<>();
+            if (!enabled.isEmpty()) {
+                for (Sensor s : sensors.findAll()) {
+                    for (AlertRule r : enabled) {
+                        boolean matches = r.getSensorId() != null
+                                ? r.getSensorId().equals(s.getId())
+                                : r.getSensorType() != null && r.getSensorType().equals(s.getType());
+                        if (matches) next.computeIfAbsent(s.getId(), k -> new ArrayList<>()).add(r);
+                    }
+                }
+            }
+            rulesBySensor = next;
+            states.keySet().retainAll(next.keySet());
+            states.forEach((sensorId, st) -> {
+                // onReading may have added a state for this sensor after retainAll ran
+                List<AlertRule> sensorRules = next.get(sensorId);
+                if (sensorRules == null) return;
+                Set<Long> ids = new HashSet<>();
+                for (AlertRule r : sensorRules) ids.add(r.getId());
+                synchronized (st) {
+                    st.rules.keySet().retainAll(ids);
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not reload alert rules ({}); keeping {} sensors' rules", ex.getMessage(), rulesBySensor.size());
+        }
+    }
+
+    public void onReading(long sensorId, double value, Instant at) {
+        List<AlertRule> rs = rulesBySensor.get(sensorId);
+        if (rs == null) return;
+        long start = System.nanoTime();
+        SensorState st = states.computeIfAbsent(sensorId, id -> new SensorState());
+        synchronized (st) {
+            double ratePerSecond = Double.NaN;
+            boolean inOrder = st.lastAt == null || at.isAfter(st.lastAt);
+            if (st.lastAt != null && inOrder) {
+                double dt = Duration.between(st.lastAt, at).toNanos() / 1e9;
+                ratePerSecond = (value - st.lastValue) / dt;
+            }
+            for (AlertRule r : rs) {
+                RuleState rule = st.rule(r.getId());
+                switch (r.getKind()) {
+                    case "threshold" -> transition(r, rule, sensorId, value, value, at);
+                    case "rate" -> {
+                        if (!Double.isNaN(ratePerSecond)) transition(r, rule, sensorId, value, ratePerSecond, at);
+                    }
+                    case "zscore" -> {
+                        // z against the previous statistics, so a spike does not dampen itself
+                        if (rule.samples >= Math.max(2, r.getWindowSize())) {
+                            double std = Math.sqrt(rule.var);
+                            if (std > 0) transition(r, rule, sensorId, value, (value - rule.mean) / std, at);
+                        }
+                        rule.observe(value, 2.0 / (Math.max(2, r.getWindowSize()) + 1));
+                    }
+                    case "stale" -> {
+                        if (rule.active) transition(r, rule, sensorId, value, 0, at);
+                    }
+                    default -> { }
+                }
+            }
+            if (inOrder) {
+                st.lastAt = at;
+                st.lastValue = value;
+            }
+        }
+        evaluated.increment();
+        evaluationNanos.add(System.nanoTime() - start);
+    }
+
+    /** Fires stale rules for owned sensors that have not reported within {@code window_size} seconds. */
+    @Scheduled(fixedDelayString = "${app.alerts.stale-check-ms:1000}")
+    public void checkStale() {
+        checkStale(Instant.now());
+    }
+
+    void checkStale(Instant now) {
+        rulesBySensor.forEach((sensorId, rs) -> {
+            if (!ownership.owns(sensorId)) return;
+            for (AlertRule r : rs) {
+                if (!"stale".equals(r.getKind())) continue;
+                SensorState st = states.computeIfAbsent(sensorId, id -> new SensorState());
+                synchronized (st) {
+                    // No reading since startup: count from when this instance started watching the sensor.
+                    // Kept apart from lastAt so the first real reading is not rated against a fake previous one.
+                    if (st.lastAt == null && st.watchedSince == null) st.watchedSince = now;
+                    Instant since = st.lastAt != null ? st.lastAt : st.watchedSince;
+                    double age = Duration.between(since, now).toMillis() / 1000.0;
+                    RuleState rule = st.rule(r.getId());
+                    if (!rule.active) transition(r, rule, sensorId, null, age, now);
+                }
+            }
+        });
+    }
+
+    @EventListener
+    public void onOwnershipChanged(SensorOwnershipChanged change) {
+        states.keySet().removeAll(change.released());
+    }
+
+    public List<ActiveAlert> activeAlerts() {
+        List<ActiveAlert> out = new ArrayList<>();
+        states.forEach((sensorId, st) -> {
+            synchronized (st) {
+                st.rules.forEach((ruleId, rule) -> {
+                    if (rule.active) out.add(new ActiveAlert(ruleId, sensorId, rule.kind, rule.lastFiredAt));
+                });
+            }
+        });
+        out.sort(Comparator.comparing(ActiveAlert::since));
+        return out;
+    }
+
+    public Stats stats() {
+        long n = evaluated.sum();
+        double avgMicros = n == 0 ? 0 : evaluationNanos.sum() / 1000.0 / n;
+        int ruleCount = rulesBySensor.values().stream().mapToInt(List::size).sum();
+        return new Stats(n, avgMicros, emitted.sum(), ruleCount, states.size());
+    }
+
+    private void transition(AlertRule r, RuleState rule, long sensorId, Double value, double metric, Instant at) {
+        rule.kind = r.getKind();
+        if (!rule.active) {
+            if (!breaches(r, metric)) return;
+            if (rule.lastFiredAt != null && at.isBefore(rule.lastFiredAt.plusSeconds(r.getCooldownSeconds()))) return;
+            rule.active = true;
+            rule.lastFiredAt = at;
+            emit(r, sensorId, AlertEvent.State.FIRED, value, metric, at);
+        } else if ("stale".equals(r.getKind()) || clears(r, metric)) {
+            rule.active = false;
+            emit(r, sensorId, AlertEvent.State.RESOLVED, value, metric, at);
+        }
+    }
+
+    private static boolean breaches(AlertRule r, double m) {
+        double t = r.getThreshold();
+        return switch (r.getDirection()) {
+            case "below" -> m < t;
+            case "both" -> Math.abs(m) > t;
+            default -> m > t;
+        };
+    }
+
+    private static boolean clears(AlertRule r, double m) {
+        double t = r.getThreshold();
+        double h = r.getHysteresis();
+        return switch (r.getDirection()) {
+            case "below" -> m >= t + h;
+            case "both" -> Math.abs(m) <= t - h;
+            default -> m <= t - h;
+        };
+    }
+
+    private void emit(AlertRule r, long sensorId, AlertEvent.State state, Double value, double metric, Instant at) {
+        emitted.increment();
+        events.publishEvent(new AlertEvent(r.getId(), sensorId, r.getKind(), state, value, metric, r.getThreshold(), at));
+    }
+
+    private static final class SensorState {
+        private Instant lastAt;
+        private double lastValue;
+        private Instant watchedSince;
+        private final Map<Long, RuleState> rules = new HashMap<>(4);
+
+        RuleState rule(long ruleId) {
+            return rules.computeIfAbsent(ruleId, id -> new RuleState());
+        }
+    }
+
+    private static final class RuleState {
+        private String kind;
+        private boolean active;
+        private Instant lastFiredAt;
+        private double mean;
+        private double var;
+        private long samples;
+
+        // EWMA mean and variance, O(1) per reading
+        void observe(double v, double alpha) {
+            if (samples++ == 0) {
+                mean = v;
+                var = 0;
+                return;
+            }
+            double diff = v - mean;
+            double incr = alpha * diff;
+            mean += incr;
+            var = (1 - alpha) * (var + diff * incr);
+        }
+    }
+}
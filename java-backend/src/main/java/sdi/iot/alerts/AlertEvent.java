@@ -0,0 +1,13 @@
+package sdi.iot.alerts;
+
+import java.time.Instant;
+
+/**
+ * Published on the application event bus when a rule starts or stops breaching.
+ * {@code metric} is what the rule compared: the value, the rate per second, the
+ * z-score or the seconds since the last reading.
+ */
+public record AlertEvent(long ruleId, long sensorId, String kind, State state,
+                         Double value, double metric, double threshold, Instant at) {
+    public enum State { FIRED, RESOLVED }
+}
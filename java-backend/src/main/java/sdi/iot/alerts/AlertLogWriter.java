@@ -0,0 +1,78 @@
+package sdi.iot.alerts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sdi.iot.cluster.SensorOwnershipService;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists {@link AlertEvent}s to {@code alert_log} in batches, off the evaluation path.
+ * A batch that fails to insert goes back to the head of the queue and is retried on
+ * the next flush; events are only dropped (and counted) when the queue is full.
+ */
+@Component
+public class AlertLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(AlertLogWriter.class);
+    private static final int BATCH = 500;
+
+    private final JdbcTemplate jdbc;
+    private final SensorOwnershipService ownership;
+    private final BlockingDeque<AlertEvent> pending = new LinkedBlockingDeque<>(100_000);
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AlertLogWriter(JdbcTemplate jdbc, SensorOwnershipService ownership) {
+        this.jdbc = jdbc; this.ownership = ownership;
+    }
+
+    @EventListener
+    public void onAlert(AlertEvent event) {
+        if (!pending.offer(event)) drop(1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.alerts.log-flush-ms:1000}")
+    public void flush() {
+        List<AlertEvent> batch = new ArrayList<>(BATCH);
+        while (pending.drainTo(batch, BATCH) > 0) {
+            List<Object[]> rows = batch.stream().map(e -> new Object[]{
+                    e.ruleId(), e.sensorId(), e.kind(), e.state().name().toLowerCase(), e.value(),
+                    e.metric(), e.threshold(), ownership.instanceId(), Timestamp.from(e.at())
+            }).toList();
+            try {
+                jdbc.batchUpdate("insert into alert_log (rule_id, sensor_id, kind, state, value, metric, threshold, instance_id, created_at) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            } catch (DataAccessException ex) {
+                log.warn("Could not write {} alert log entries, retrying on next flush: {}", rows.size(), ex.getMessage());
+                requeue(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // Newest first, so the batch keeps its order at the head of the queue
+    private void requeue(List<AlertEvent> batch) {
+        int lost = 0;
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!pending.offerFirst(batch.get(i))) lost++;
+        }
+        if (lost > 0) drop(lost);
+    }
+
+    private void drop(int count) {
+        long before = dropped.getAndAdd(count);
+        if (before / 1000 != (before + count) / 1000 || before == 0) {
+            log.warn("Alert log queue full, {} events dropped so far", before + count);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package sdi.iot.alerts;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import sdi.iot.cluster.SensorOwnershipService;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds new rows of {@code sensor_readings} to the {@link AlertEngine}, whichever
+ * writer inserted them (Laravel MQTT subscriber, workload generator, ...).
+ * When clustering is on only the owned sensors are read.
+ *
+ * Rows are followed by id, but ids are allocated before the inserting transaction
+ * commits, so concurrent writers can make a lower id visible after a higher one.
+ * Each poll therefore re-scans the last {@code app.alerts.overlap-ids} ids and skips
+ * the ones already delivered. Delivery is at most once: a row that becomes visible
+ * only after it has fallen out of that window, or one committed below the starting
+ * point, is never evaluated.
+ *
+ * Tailing runs on its own thread. A poll reads at most
+ * {@code app.alerts.max-batches-per-poll} batches; when it stops at that cap the
+ * next poll starts right away instead of after {@code app.alerts.poll-interval-ms},
+ * so the read rate is bounded by the database and the engine, not by the tick.
+ */
+@Component
+public class ReadingTailer {
+    private static final Logger log = LoggerFactory.getLogger(ReadingTailer.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final AlertEngine engine;
+    private final SensorOwnershipService ownership;
+
+    @Value("${app.alerts.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.alerts.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.alerts.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    // Bounds one poll so the overlap window is pruned regularly; a capped poll is followed immediately
+    @Value("${app.alerts.max-batches-per-poll:4}")
+    private int maxBatchesPerPoll;
+
+    @Value("${app.alerts.overlap-ids:2000}")
+    private int overlapIds;
+
+    private long startId = -1;
+    private long lastId = -1;
+    private final NavigableSet<Long> delivered = new TreeSet<>();
+    private ScheduledExecutorService tailer;
+
+    public ReadingTailer(NamedParameterJdbcTemplate jdbc, AlertEngine engine, SensorOwnershipService ownership) {
+        this.jdbc = jdbc; this.engine = engine; this.ownership = ownership;
+    }
+
+    private record Row(long id, long sensorId, double value, Timestamp createdAt) {}
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (!enabled || tailer != null) return;
+        tailer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alert-tailer");
+            t.setDaemon(true);
+            return t;
+        });
+        tailer.schedule(this::tick, 0, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        boolean capped = false;
+        try {
+            capped = poll();
+        } catch (RuntimeException ex) {
+            // The next poll is only scheduled from here, so nothing may escape
+            log.error("Reading tail failed after id {}", lastId, ex);
+        }
+        try {
+            tailer.schedule(this::tick, capped ? 0 : pollIntervalMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down
+        }
+    }
+
+    /** Reads the new rows once; returns true when it stopped at the batch cap with rows left. */
+    public boolean poll() {
+        if (!enabled) return false;
+        try {
+            if (lastId < 0) {
+                // Start at the end of the table; history is not re-evaluated
+                restartAt(maxId());
+                return false;
+            }
+            Set<Long> owned = ownership.isEnabled() ? ownership.ownedSensorIds() : null;
+            if (owned != null && owned.isEmpty()) {
+                restartAt(maxId());
+                return false;
+            }
+            long cursor = Math.max(startId, lastId - overlapIds);
+            List<Row> rows;
+            int batches = 0;
+            do {
+                rows = fetch(owned, cursor);
+                for (Row r : rows) {
+                    cursor = r.id();
+                    if (!delivered.add(r.id())) continue;
+                    engine.onReading(r.sensorId(), r.value(), r.createdAt().toInstant());
+                    lastId = Math.max(lastId, r.id());
+                }
+            } while (rows.size() == batchSize && ++batches < maxBatchesPerPoll);
+            delivered.headSet(lastId - overlapIds, true).clear();
+            return rows.size() == batchSize;
+        } catch (DataAccessException ex) {
+            log.warn("Reading tail failed after id {}: {}", lastId, ex.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (tailer == null) return;
+        tailer.shutdownNow();
+        try {
+            tailer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void restartAt(long id) {
+        startId = id;
+        lastId = id;
+        delivered.clear();
+    }
+
+    private List<Row> fetch(Set<Long> owned, long afterId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lastId", afterId)
+                .addValue("limit", batchSize);
+        String filter = "";
+        if (owned != null) {
+            filter = " and sensor_id in (:owned)";
+            params.addValue("owned", List.copyOf(owned));
+        }
+        return jdbc.query("select id, sensor_id, value, created_at from sensor_readings where id > :lastId" + filter +
+                        " order by id asc limit :limit", params,
+                (rs, n) -> new Row(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getTimestamp(4)));
+    }
+
+    private long maxId() {
+        Long max = jdbc.getJdbcTemplate().queryForObject("select max(id) from sensor_readings", Long.class);
+        return max == null ? 0 : max;
+    }
+}
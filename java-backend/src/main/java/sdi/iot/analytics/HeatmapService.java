@@ -0,0 +1,162 @@
+package sdi.iot.analytics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time x value-bin count matrix for one sensor, built in a single streaming pass
+ * over the window.
+ *
+ * Bin edges are equal-width over the sensor's historical range: the rollups in
+ * {@code aggregated_readings}, else the last {@value #RANGE_HISTORY_ROWS} readings
+ * before the window. Only a sensor with neither takes its range from the window
+ * itself, which costs a second (min/max) pass over it. Window values outside the
+ * range go to the edge bins and are reported as below/above range.
+ *
+ * A rollup bucket whose min and max fall in the same bin is counted from its
+ * {@code count} without reading raw rows; only the remaining time ranges are
+ * streamed from {@code sensor_readings} (covered by the (sensor_id, created_at, value) index).
+ *
+ * Rows are aligned to whole buckets, but only readings after {@code after} are
+ * counted, as in {@code /aggregates}: the first row is partial and is always read
+ * raw, since its rollup would include readings from before the window.
+ */
+@Service
+public class HeatmapService {
+    static final int RANGE_HISTORY_ROWS = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streaming;
+
+    public HeatmapService(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.streaming = new JdbcTemplate(dataSource);
+        // MySQL Connector/J: Integer.MIN_VALUE streams rows one by one instead of loading the whole result
+        this.streaming.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    private record Rollup(int row, double min, double max, long count) {}
+
+    /** counts: rows x bins, row-major; edges: bins + 1 bounds. */
+    public record Result(Instant start, String period, long bucketSeconds, int rows, int bins, double[] edges, int[] counts,
+                         long total, long belowRange, long aboveRange, int rollupBuckets) {}
+
+    public Result compute(long sensorId, Instant after, String period, int bins) {
+        ChronoUnit unit = "day".equals(period) ? ChronoUnit.DAYS : ChronoUnit.HOURS;
+        long bucketSeconds = unit.getDuration().getSeconds();
+        Instant start = after.truncatedTo(unit);
+        Instant end = Instant.now();
+        int rows = (int) (Duration.between(start, end).getSeconds() / bucketSeconds) + 1;
+
+        double[] range = historicalRange(sensorId, after);
+        double lo = range[0];
+        double hi = range[1];
+        if (!(hi > lo)) { lo -= 0.5; hi += 0.5; }
+        double width = (hi - lo) / bins;
+        double[] edges = new double[bins + 1];
+        for (int i = 0; i <= bins; i++) edges[i] = lo + i * width;
+
+        int[] counts = new int[rows * bins];
+        long[] clamped = new long[2]; // [0] below lo, [1] above hi
+        boolean[] fromRollup = new boolean[rows];
+        int rollupBuckets = 0;
+
+        for (Rollup r : rollups(sensorId, period, start, end, bucketSeconds)) {
+            if (r.row() < 0 || r.row() >= rows || r.min() < lo || r.max() > hi) continue;
+            if (r.row() == 0 && after.isAfter(start)) continue;
+            int bin = bin(r.min(), lo, width, bins);
+            if (bin != bin(r.max(), lo, width, bins)) continue;
+            counts[r.row() * bins + bin] += (int) r.count();
+            fromRollup[r.row()] = true;
+            rollupBuckets++;
+        }
+
+        final double fLo = lo, fHi = hi, fWidth = width;
+        final long startEpoch = start.getEpochSecond();
+        for (Instant[] span : unresolvedSpans(fromRollup, start, end, bucketSeconds)) {
+            // The first span opens at `after` and excludes it, like created_at > after in /aggregates
+            boolean first = span[0].equals(start);
+            if (first) span[0] = after;
+            streaming.query("select created_at, value from sensor_readings where sensor_id = ? and created_at " +
+                            (first ? ">" : ">=") + " ? and created_at < ?",
+                    rs -> {
+                        long epoch = rs.getTimestamp(1).toInstant().getEpochSecond();
+                        int row = (int) ((epoch - startEpoch) / bucketSeconds);
+                        if (row < 0 || row >= rows) return;
+                        double v = rs.getDouble(2);
+                        if (v < fLo) clamped[0]++;
+                        else if (v > fHi) clamped[1]++;
+                        counts[row * bins + bin(v, fLo, fWidth, bins)]++;
+                    },
+                    sensorId, Timestamp.from(span[0]), Timestamp.from(span[1]));
+        }
+
+        long total = 0;
+        for (int c : counts) total += c;
+        return new Result(start, period, bucketSeconds, rows, bins, edges, counts, total, clamped[0], clamped[1], rollupBuckets);
+    }
+
+    private static int bin(double v, double lo, double width, int bins) {
+        int b = (int) Math.floor((v - lo) / width);
+        return Math.max(0, Math.min(bins - 1, b));
+    }
+
+    /**
+     * [min, max] from rollups over all time, else from the latest readings before
+     * {@code since} (a bounded backwards index scan), else from the window.
+     */
+    private double[] historicalRange(long sensorId, Instant since) {
+        List<double[]> fromRollups = jdbc.query(
+                "select min(min_value), max(max_value) from aggregated_readings where sensor_id = ?",
+                (rs, n) -> rs.getObject(1) == null ? null : new double[]{rs.getDouble(1), rs.getDouble(2)}, sensorId);
+        if (!fromRollups.isEmpty() && fromRollups.get(0) != null) return fromRollups.get(0);
+        List<double[]> fromHistory = jdbc.query(
+                "select min(value), max(value) from (select value from sensor_readings where sensor_id = ? and created_at < ? " +
+                        "order by created_at desc limit ?) h",
+                (rs, n) -> rs.getObject(1) == null ? null : new double[]{rs.getDouble(1), rs.getDouble(2)},
+                sensorId, Timestamp.from(since), RANGE_HISTORY_ROWS);
+        if (!fromHistory.isEmpty() && fromHistory.get(0) != null) return fromHistory.get(0);
+        // No history before the window: the only range left is the window's own, at the cost of a second pass
+        List<double[]> fromRaw = jdbc.query(
+                "select min(value), max(value) from sensor_readings where sensor_id = ? and created_at >= ?",
+                (rs, n) -> rs.getObject(1) == null ? null : new double[]{rs.getDouble(1), rs.getDouble(2)},
+                sensorId, Timestamp.from(since));
+        return !fromRaw.isEmpty() && fromRaw.get(0) != null ? fromRaw.get(0) : new double[]{0, 0};
+    }
+
+    /** Rollups of the same period whose bucket had closed when they were last computed. */
+    private List<Rollup> rollups(long sensorId, String period, Instant start, Instant end, long bucketSeconds) {
+        long startEpoch = start.getEpochSecond();
+        return jdbc.query("select bucket_start, min_value, max_value, count from aggregated_readings " +
+                        "where sensor_id = ? and period = ? and bucket_start >= ? and bucket_start < ? " +
+                        "and min_value is not null and updated_at >= bucket_start + interval ? second",
+                (rs, n) -> new Rollup(
+                        (int) ((rs.getTimestamp(1).toInstant().getEpochSecond() - startEpoch) / bucketSeconds),
+                        rs.getDouble(2), rs.getDouble(3), rs.getLong(4)),
+                sensorId, "day".equals(period) ? "day" : "hour", Timestamp.from(start), Timestamp.from(end), bucketSeconds);
+    }
+
+    /** Contiguous time ranges not covered by rollups, so the raw scan skips whole resolved buckets. */
+    private static List<Instant[]> unresolvedSpans(boolean[] fromRollup, Instant start, Instant end, long bucketSeconds) {
+        List<Instant[]> spans = new ArrayList<>();
+        int i = 0;
+        while (i < fromRollup.length) {
+            if (fromRollup[i]) { i++; continue; }
+            int j = i;
+            while (j < fromRollup.length && !fromRollup[j]) j++;
+            Instant from = start.plusSeconds(i * bucketSeconds);
+            Instant to = j == fromRollup.length ? end.plusSeconds(1) : start.plusSeconds(j * bucketSeconds);
+            spans.add(new Instant[]{from, to});
+            i = j;
+        }
+        return spans;
+    }
+}
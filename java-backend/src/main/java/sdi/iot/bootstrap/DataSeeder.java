@@ -1,27 +1,26 @@
 package sdi.iot.bootstrap;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import sdi.iot.model.ApiToken;
 import sdi.iot.model.Sensor;
-import sdi.iot.model.SensorReading;
 import sdi.iot.repo.ApiTokenRepository;
-import sdi.iot.repo.SensorReadingRepository;
 import sdi.iot.repo.SensorRepository;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
-import java.util.Random;
-import java.util.Random;
 
 @Component
+@Order(1)
 public class DataSeeder implements CommandLineRunner {
     private final SensorRepository sensors;
-    private final SensorReadingRepository readings;
     private final ApiTokenRepository tokens;
+    private final WorkloadGenerator workload;
 
-    public DataSeeder(SensorRepository sensors, SensorReadingRepository readings, ApiTokenRepository tokens) {
-        this.sensors = sensors; this.readings = readings; this.tokens = tokens;
+    public DataSeeder(SensorRepository sensors, ApiTokenRepository tokens, WorkloadGenerator workload) {
+        this.sensors = sensors; this.tokens = tokens; this.workload = workload;
     }
 
     @Override
@@ -32,25 +31,12 @@ public class DataSeeder implements CommandLineRunner {
             Sensor s = new Sensor(); s.setName("Soil Moisture"); s.setType("umiditate_sol"); s.setUnit("ADC"); s.setNodeId("node-2"); s.setActive(true); s.setMqttTopic("iot/esp32_node2/umiditate_sol"); sensors.save(s);
             Sensor c = new Sensor(); c.setName("ACS712 Current"); c.setType("curent"); c.setUnit("A"); c.setNodeId("node-3"); c.setActive(true); c.setMqttTopic("iot/esp32_node3/curent"); sensors.save(c);
 
-            Random rnd = new Random(42);
+            // 300 minutes of history, one reading per minute; for large volumes use app.workload.mode=backfill
+            var targets = List.of(t, h, s, c).stream()
+                    .map(sensor -> new WorkloadGenerator.Target(sensor.getId(), sensor.getType()))
+                    .toList();
             var now = Instant.now();
-            for (Sensor sensor : List.of(t,h,s,c)) {
-                for (int i = 0; i < 300; i++) {
-                    SensorReading r = new SensorReading();
-                    r.setSensor(sensor);
-                    double base = switch (sensor.getType()) {
-                        case "temperatura" -> 21.0;
-                        case "umiditate" -> 50.0;
-                        case "umiditate_sol" -> 550.0;
-                        case "curent" -> 0.5;
-                        default -> 0.0;
-                    };
-                    double val = base + rnd.nextGaussian() * (sensor.getType().equals("curent") ? 0.05 : (sensor.getType().equals("umiditate_sol") ? 50.0 : 2.0));
-                    r.setValue(val);
-                    r.setCreatedAt(now.minusSeconds(60L * (300 - i)));
-                    readings.save(r);
-                }
-            }
+            workload.backfill(targets, now.minus(Duration.ofMinutes(300)), now, Duration.ofMinutes(1), WorkloadGenerator.Shape.CLEAN);
         }
         if (tokens.count() == 0) {
             ApiToken tok = new ApiToken();
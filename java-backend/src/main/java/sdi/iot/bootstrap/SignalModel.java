@@ -0,0 +1,67 @@
+package sdi.iot.bootstrap;
+
+import java.util.Random;
+
+/**
+ * Synthetic per-sensor signal: base level + daily cycle + AR(1) noise, with
+ * occasional injected spikes. One instance per sensor; not thread-safe.
+ */
+final class SignalModel {
+    private static final double DAY_SECONDS = 86_400.0;
+
+    private final double base;
+    private final double diurnal;
+    private final double sigma;
+    private final double phi;
+    private final double driftPerHour;
+    private final double min;
+    private final double max;
+    private final double phase;
+    private final Random rnd;
+    private double noise;
+
+    private SignalModel(double base, double diurnal, double sigma, double phi, double driftPerHour,
+                        double min, double max, Random rnd) {
+        this.base = base; this.diurnal = diurnal; this.sigma = sigma; this.phi = phi;
+        this.driftPerHour = driftPerHour; this.min = min; this.max = max; this.rnd = rnd;
+        this.phase = rnd.nextDouble() * 2 * Math.PI * 0.1;
+    }
+
+    static SignalModel forType(String type, Random rnd) {
+        return switch (type) {
+            case "temperatura" -> new SignalModel(21.0, 3.0, 0.3, 0.9, 0.0, -20, 60, rnd);
+            case "umiditate" -> new SignalModel(50.0, -8.0, 1.5, 0.8, 0.0, 0, 100, rnd);
+            // soil dries out slowly and watering brings it back to the base level (see value)
+            case "umiditate_sol" -> new SignalModel(550.0, 0.0, 10.0, 0.7, 4.0, 0, 1023, rnd);
+            case "curent" -> new SignalModel(0.5, 0.3, 0.05, 0.5, 0.0, 0, 30, rnd);
+            default -> new SignalModel(0.0, 1.0, 0.1, 0.5, 0.0, -1e9, 1e9, rnd);
+        };
+    }
+
+    double sigma() {
+        return sigma;
+    }
+
+    /** Value at {@code epochSecond}; advances the noise process by one step. */
+    double value(long epochSecond) {
+        noise = phi * noise + Math.sqrt(1 - phi * phi) * sigma * rnd.nextGaussian();
+        double dayFraction = (epochSecond % (long) DAY_SECONDS) / DAY_SECONDS;
+        double v = base + diurnal * Math.sin(2 * Math.PI * dayFraction - Math.PI / 2 + phase) + noise;
+        if (driftPerHour != 0) {
+            // 3-day watering cycle
+            double hoursIntoCycle = (epochSecond % (3 * 86_400L)) / 3600.0;
+            v += driftPerHour * hoursIntoCycle;
+        }
+        return clamp(v);
+    }
+
+    /** Spike of 6–10 sigma in a random direction on top of {@code value}. */
+    double spike(double value) {
+        double magnitude = (6 + rnd.nextDouble() * 4) * Math.max(sigma, Math.abs(diurnal) * 0.5);
+        return clamp(value + (rnd.nextBoolean() ? magnitude : -magnitude));
+    }
+
+    private double clamp(double v) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
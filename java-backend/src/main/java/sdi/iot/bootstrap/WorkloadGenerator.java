@@ -0,0 +1,328 @@
+package sdi.iot.bootstrap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic load for capacity tests. Creates {@code sensors} sensors spread over
+ * {@code nodes} nodes and writes readings with realistic shapes (daily cycle,
+ * correlated noise), injected spikes, gaps and out-of-order arrivals, using
+ * batched JDBC inserts.
+ *
+ * <pre>
+ * --app.workload.mode=backfill --app.workload.sensors=1000 --app.workload.nodes=250 --app.workload.hours=720
+ * --app.workload.mode=live --app.workload.sensors=1000 --app.workload.rate=20000 --app.workload.duration-seconds=300
+ * </pre>
+ */
+@Component
+@Order(2) // after DataSeeder: run() may stop the JVM, and the dev token must already exist
+public class WorkloadGenerator implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(WorkloadGenerator.class);
+    private static final List<String> TYPES = List.of("temperatura", "umiditate", "umiditate_sol", "curent");
+    private static final String INSERT_READING = "insert into sensor_readings (sensor_id, value, created_at) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ApplicationContext context;
+
+    @Value("${app.workload.mode:none}")
+    private String mode;
+    @Value("${app.workload.sensors:100}")
+    private int sensorCount;
+    @Value("${app.workload.nodes:25}")
+    private int nodeCount;
+    @Value("${app.workload.node-prefix:load-node}")
+    private String nodePrefix;
+    @Value("${app.workload.hours:24}")
+    private long hours;
+    @Value("${app.workload.interval-seconds:10}")
+    private long intervalSeconds;
+    @Value("${app.workload.rate:1000}")
+    private double rate;
+    @Value("${app.workload.duration-seconds:60}")
+    private long durationSeconds;
+    @Value("${app.workload.batch-size:5000}")
+    private int batchSize;
+    @Value("${app.workload.threads:4}")
+    private int threads;
+    @Value("${app.workload.anomaly-rate:0.001}")
+    private double anomalyRate;
+    @Value("${app.workload.gap-rate:0.0005}")
+    private double gapRate;
+    @Value("${app.workload.out-of-order-rate:0.01}")
+    private double outOfOrderRate;
+    @Value("${app.workload.seed:42}")
+    private long seed;
+    @Value("${app.workload.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    public WorkloadGenerator(JdbcTemplate jdbc, ApplicationContext context) {
+        this.jdbc = jdbc; this.context = context;
+    }
+
+    public record Target(long sensorId, String type) {}
+
+    /** Probabilities per generated reading. */
+    public record Shape(double anomalyRate, double gapRate, double outOfOrderRate) {
+        public static final Shape CLEAN = new Shape(0, 0, 0);
+    }
+
+    public record Report(long rows, long anomalies, long gaps, long outOfOrder, Duration elapsed) {
+        public double rowsPerSecond() {
+            double s = elapsed.toNanos() / 1e9;
+            return s == 0 ? 0 : rows / s;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d rows in %.1fs (%.0f rows/s), %d anomalies, %d gaps, %d out-of-order",
+                    rows, elapsed.toNanos() / 1e9, rowsPerSecond(), anomalies, gaps, outOfOrder);
+        }
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if ("none".equalsIgnoreCase(mode)) return;
+        List<Target> targets = ensureSensors(sensorCount, nodeCount);
+        Shape shape = new Shape(anomalyRate, gapRate, outOfOrderRate);
+        Report report = switch (mode.toLowerCase(Locale.ROOT)) {
+            case "backfill" -> {
+                Instant to = Instant.now();
+                yield backfill(targets, to.minus(Duration.ofHours(hours)), to, Duration.ofSeconds(intervalSeconds), shape);
+            }
+            case "live" -> live(targets, rate, Duration.ofSeconds(durationSeconds), shape);
+            default -> throw new IllegalArgumentException("Unknown app.workload.mode: " + mode + " (none|backfill|live)");
+        };
+        log.info("Workload {} finished: {}", mode, report);
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    /**
+     * Creates (or reuses) {@code count} sensors named after {@code node-prefix}.
+     * Laravel keeps (node_id, sensor_type) unique, so a node holds at most one
+     * sensor per type and {@code nodes} is raised when needed.
+     */
+    public List<Target> ensureSensors(int count, int nodes) {
+        int effectiveNodes = Math.max(Math.max(1, nodes), (count + TYPES.size() - 1) / TYPES.size());
+        if (effectiveNodes != nodes) {
+            log.warn("{} sensors need at least {} nodes (one sensor per type per node); using {}", count, effectiveNodes, effectiveNodes);
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String node = nodePrefix + "-" + (i % effectiveNodes);
+            String type = TYPES.get((i / effectiveNodes) % TYPES.size());
+            rows.add(new Object[]{node, type, "Load " + type + " " + node, unitFor(type), "iot/" + node + "/" + type, true, now, now});
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbc.batchUpdate("insert ignore into sensors (node_id, sensor_type, name, unit, mqtt_topic, is_active, created_at, updated_at) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?)", rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+        List<Target> targets = jdbc.query("select id, sensor_type from sensors where node_id like ? order by id limit ?",
+                (rs, n) -> new Target(rs.getLong(1), rs.getString(2)), nodePrefix + "-%", count);
+        log.info("Workload uses {} sensors across {} nodes", targets.size(), effectiveNodes);
+        return targets;
+    }
+
+    /** Historical readings every {@code interval} in [from, to), split across worker threads by sensor. */
+    public Report backfill(List<Target> targets, Instant from, Instant to, Duration interval, Shape shape) throws InterruptedException {
+        long start = System.nanoTime();
+        Counters total = new Counters();
+        long steps = Math.max(0, Duration.between(from, to).dividedBy(interval));
+        log.info("Backfill of {} sensors x {} steps (~{} rows)", targets.size(), steps, targets.size() * steps);
+        runPartitioned(targets, (part, rnd) -> {
+            Batch batch = new Batch(total, start);
+            for (Target t : part) {
+                SensorStream stream = new SensorStream(t, SignalModel.forType(t.type(), rnd), rnd, shape);
+                for (long i = 0; i < steps; i++) {
+                    stream.emit(from.plus(interval.multipliedBy(i)), batch);
+                }
+                stream.drain(batch);
+            }
+            batch.flush();
+        });
+        return total.report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /** Readings stamped "now" at {@code rowsPerSecond} overall, round-robin over the sensors. */
+    public Report live(List<Target> targets, double rowsPerSecond, Duration duration, Shape shape) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Counters total = new Counters();
+        int workers = Math.max(1, Math.min(threads, targets.size()));
+        double perWorker = rowsPerSecond / workers;
+        runPartitioned(targets, (part, rnd) -> {
+            Batch batch = new Batch(total, start);
+            List<SensorStream> streams = part.stream()
+                    .map(t -> new SensorStream(t, SignalModel.forType(t.type(), rnd), rnd, shape))
+                    .toList();
+            long emitted = 0;
+            int next = 0;
+            while (System.nanoTime() < end) {
+                long due = (long) (perWorker * (System.nanoTime() - start) / 1e9);
+                Instant now = Instant.now();
+                for (; emitted < due; emitted++) {
+                    streams.get(next).emit(now, batch);
+                    next = (next + 1) % streams.size();
+                }
+                batch.flush();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+            for (SensorStream s : streams) s.drain(batch);
+            batch.flush();
+        });
+        Report report = total.report(Duration.ofNanos(System.nanoTime() - start));
+        if (report.rowsPerSecond() < rowsPerSecond * 0.95) {
+            log.warn("Target rate {} rows/s not reached (achieved {})", rowsPerSecond, String.format(Locale.ROOT, "%.0f", report.rowsPerSecond()));
+        }
+        return report;
+    }
+
+    private interface Worker {
+        void run(List<Target> part, Random rnd);
+    }
+
+    private void runPartitioned(List<Target> targets, Worker worker) throws InterruptedException {
+        if (targets.isEmpty()) return;
+        int workers = Math.max(1, Math.min(threads, targets.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                List<Target> part = new ArrayList<>();
+                for (int i = w; i < targets.size(); i += workers) part.add(targets.get(i));
+                Random rnd = new Random(seed + w);
+                futures.add(pool.submit(() -> worker.run(part, rnd)));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Workload worker failed", ex.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String unitFor(String type) {
+        return switch (type) {
+            case "temperatura" -> "°C";
+            case "umiditate" -> "%";
+            case "umiditate_sol" -> "ADC";
+            case "curent" -> "A";
+            default -> "";
+        };
+    }
+
+    /** Per-sensor emitter applying gaps, spikes and delayed (out-of-order) inserts. */
+    private static final class SensorStream {
+        private static final int MAX_DELAY = 20;
+        private final Target target;
+        private final SignalModel signal;
+        private final Random rnd;
+        private final Shape shape;
+        private final ArrayDeque<Object[]> delayed = new ArrayDeque<>();
+        private final ArrayDeque<Long> releaseAt = new ArrayDeque<>();
+        private long seq;
+        private long gapRemaining;
+
+        SensorStream(Target target, SignalModel signal, Random rnd, Shape shape) {
+            this.target = target; this.signal = signal; this.rnd = rnd; this.shape = shape;
+        }
+
+        void emit(Instant at, Batch batch) {
+            seq++;
+            while (!releaseAt.isEmpty() && releaseAt.peekFirst() <= seq) {
+                releaseAt.pollFirst();
+                batch.add(delayed.pollFirst());
+            }
+            double value = signal.value(at.getEpochSecond());
+            if (gapRemaining > 0) {
+                gapRemaining--;
+                return;
+            }
+            if (shape.gapRate() > 0 && rnd.nextDouble() < shape.gapRate()) {
+                gapRemaining = 5 + rnd.nextInt(60);
+                batch.counters.gaps.incrementAndGet();
+                return;
+            }
+            if (shape.anomalyRate() > 0 && rnd.nextDouble() < shape.anomalyRate()) {
+                value = signal.spike(value);
+                batch.counters.anomalies.incrementAndGet();
+            }
+            Object[] row = {target.sensorId(), value, Timestamp.from(at)};
+            if (shape.outOfOrderRate() > 0 && rnd.nextDouble() < shape.outOfOrderRate()) {
+                // delayed rows keep their relative order, so releaseAt stays ascending
+                long release = Math.max(seq + 1 + rnd.nextInt(MAX_DELAY), releaseAt.isEmpty() ? 0 : releaseAt.peekLast());
+                delayed.addLast(row);
+                releaseAt.addLast(release);
+                batch.counters.outOfOrder.incrementAndGet();
+                return;
+            }
+            batch.add(row);
+        }
+
+        void drain(Batch batch) {
+            releaseAt.clear();
+            while (!delayed.isEmpty()) batch.add(delayed.pollFirst());
+        }
+    }
+
+    private static final class Counters {
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong anomalies = new AtomicLong();
+        final AtomicLong gaps = new AtomicLong();
+        final AtomicLong outOfOrder = new AtomicLong();
+        final AtomicLong lastProgressNanos = new AtomicLong(System.nanoTime());
+
+        Report report(Duration elapsed) {
+            return new Report(rows.get(), anomalies.get(), gaps.get(), outOfOrder.get(), elapsed);
+        }
+    }
+
+    private final class Batch {
+        private final Counters counters;
+        private final long startNanos;
+        private final List<Object[]> rows = new ArrayList<>(batchSize);
+
+        Batch(Counters counters, long startNanos) {
+            this.counters = counters; this.startNanos = startNanos;
+        }
+
+        void add(Object[] row) {
+            rows.add(row);
+            if (rows.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (rows.isEmpty()) return;
+            jdbc.batchUpdate(INSERT_READING, rows);
+            long total = counters.rows.addAndGet(rows.size());
+            rows.clear();
+            long now = System.nanoTime();
+            long last = counters.lastProgressNanos.get();
+            if (now - last > TimeUnit.SECONDS.toNanos(10) && counters.lastProgressNanos.compareAndSet(last, now)) {
+                double secs = (now - startNanos) / 1e9;
+                log.info("Workload progress: {} rows, {} rows/s", total, String.format(Locale.ROOT, "%.0f", total / secs));
+            }
+        }
+    }
+}
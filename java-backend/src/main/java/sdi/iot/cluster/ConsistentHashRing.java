@@ -0,0 +1,52 @@
+package sdi.iot.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable hash ring mapping sensor ids to instance ids. Each instance is
+ * placed at {@code virtualNodes} points so that adding or removing one
+ * instance only moves roughly 1/N of the sensors.
+ */
+public final class ConsistentHashRing {
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final List<String> members;
+
+    public ConsistentHashRing(Collection<String> instanceIds, int virtualNodes) {
+        this.members = instanceIds.stream().distinct().sorted().toList();
+        for (String id : members) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring.put(hash(id + "#" + v), id);
+            }
+        }
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    public String ownerOf(long sensorId) {
+        if (ring.isEmpty()) return null;
+        Map.Entry<Long, String> e = ring.ceilingEntry(mix(sensorId));
+        return e != null ? e.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String key) {
+        // 64-bit FNV-1a followed by a mix step, for an even spread over the ring
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,10 @@
+package sdi.iot.cluster;
+
+import java.util.Set;
+
+/**
+ * Published after each rebalance in which this instance gained or lost
+ * sensor leases. Stateful per-sensor components warm up state for
+ * {@code acquired} and drop it for {@code released}.
+ */
+public record SensorOwnershipChanged(Set<Long> acquired, Set<Long> released) {}
@@ -0,0 +1,207 @@
+package sdi.iot.cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import sdi.iot.model.ClusterNode;
+import sdi.iot.repo.ClusterNodeRepository;
+import sdi.iot.repo.SensorLeaseRepository;
+import sdi.iot.repo.SensorRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits sensors across backend instances sharing one database.
+ *
+ * Every instance heartbeats into {@code cluster_nodes}; the live members form a
+ * {@link ConsistentHashRing} and each instance claims a lease in
+ * {@code sensor_leases} for the sensors the ring assigns to it. Leases of a dead
+ * instance expire after {@code app.cluster.lease-ttl-ms} and are taken over by the
+ * new ring owner. Expiry is judged by the database clock ({@code now(3)}), so
+ * clock skew between hosts does not break lease exclusivity. Reads stay on any node; only stateful per-sensor work should be
+ * gated by {@link #owns(long)}.
+ *
+ * The heartbeat runs on its own thread rather than the shared {@code @Scheduled}
+ * pool, so slow jobs there cannot delay renewals past the lease TTL.
+ */
+@Service
+public class SensorOwnershipService {
+    private static final Logger log = LoggerFactory.getLogger(SensorOwnershipService.class);
+
+    private final ClusterNodeRepository nodes;
+    private final SensorLeaseRepository leases;
+    private final SensorRepository sensors;
+    private final ApplicationEventPublisher events;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cluster.instance-id:}")
+    private String configuredInstanceId;
+
+    @Value("${app.cluster.base-url:}")
+    private String baseUrl;
+
+    @Value("${app.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${app.cluster.heartbeat-interval-ms:5000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.cluster.virtual-nodes:64}")
+    private int virtualNodes;
+
+    private final Set<Long> owned = ConcurrentHashMap.newKeySet();
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(), 1);
+    private volatile String instanceId;
+    private ScheduledExecutorService heartbeat;
+
+    public SensorOwnershipService(ClusterNodeRepository nodes, SensorLeaseRepository leases,
+                                  SensorRepository sensors, ApplicationEventPublisher events) {
+        this.nodes = nodes; this.leases = leases; this.sensors = sensors; this.events = events;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Resolved once before any thread can ask: a lazily generated random id could differ between callers
+    @PostConstruct
+    void resolveInstanceId() {
+        instanceId = configuredInstanceId == null || configuredInstanceId.isBlank()
+                ? UUID.randomUUID().toString().substring(0, 8)
+                : configuredInstanceId;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public long leaseTtlMs() {
+        return leaseTtlMs;
+    }
+
+    /** True when this instance should run stateful work for the sensor. Always true when clustering is off. */
+    public boolean owns(long sensorId) {
+        return !enabled || owned.contains(sensorId);
+    }
+
+    public Set<Long> ownedSensorIds() {
+        return Collections.unmodifiableSet(owned);
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void startHeartbeat() {
+        if (!enabled || heartbeat != null) return;
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(this::rebalance, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void rebalance() {
+        if (!enabled) return;
+        try {
+            doRebalance();
+        } catch (RuntimeException ex) {
+            // Any exception would cancel the fixed-delay task, so everything is caught here.
+            // Leases can no longer be renewed: drop them locally before they expire in the DB
+            log.warn("Cluster rebalance failed ({}); dropping {} local leases", ex.getMessage(), owned.size());
+            Set<Long> released = new HashSet<>(owned);
+            owned.clear();
+            publish(Set.of(), released);
+        }
+    }
+
+    private void doRebalance() {
+        String me = instanceId();
+
+        nodes.heartbeat(me, baseUrl);
+        List<String> live = new ArrayList<>(nodes.findLive(leaseTtlMs).stream().map(ClusterNode::getInstanceId).toList());
+        if (!live.contains(me)) live.add(me);
+        ConsistentHashRing current = new ConsistentHashRing(live, virtualNodes);
+        ring = current;
+
+        Set<Long> desired = new HashSet<>();
+        for (Long id : sensors.findAllIds()) {
+            if (me.equals(current.ownerOf(id))) desired.add(id);
+        }
+
+        Set<Long> toRelease = new HashSet<>(owned);
+        toRelease.removeAll(desired);
+        if (!toRelease.isEmpty()) leases.release(me, toRelease);
+
+        Set<Long> toRenew = new HashSet<>(owned);
+        toRenew.retainAll(desired);
+        if (!toRenew.isEmpty()) leases.renew(me, toRenew, leaseTtlMs);
+
+        for (Long id : desired) {
+            if (owned.contains(id)) continue;
+            if (leases.tryInsert(id, me, leaseTtlMs) == 0) {
+                leases.tryTakeOver(id, me, leaseTtlMs);
+            }
+        }
+
+        // The table is the source of truth: a lease lost meanwhile (e.g. GC pause) is not kept locally
+        Set<Long> held = new HashSet<>(leases.findHeldSensorIds(me));
+        held.retainAll(desired);
+        Set<Long> acquired = new HashSet<>(held);
+        acquired.removeAll(owned);
+        Set<Long> released = new HashSet<>(owned);
+        released.removeAll(held);
+        owned.addAll(acquired);
+        owned.removeAll(released);
+
+        nodes.deleteStale(leaseTtlMs * 10);
+        publish(acquired, released);
+        if (!acquired.isEmpty() || !released.isEmpty()) {
+            log.info("Instance {} now owns {} sensors (+{} / -{}) across {} live instances",
+                    me, owned.size(), acquired.size(), released.size(), live.size());
+        }
+    }
+
+    private void publish(Set<Long> acquired, Set<Long> released) {
+        if (acquired.isEmpty() && released.isEmpty()) return;
+        events.publishEvent(new SensorOwnershipChanged(Set.copyOf(acquired), Set.copyOf(released)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) return;
+        synchronized (this) {
+            if (heartbeat != null) {
+                heartbeat.shutdownNow();
+                try {
+                    heartbeat.awaitTermination(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        try {
+            // Release right away so the other instances take over without waiting for expiry
+            leases.releaseAll(instanceId());
+            nodes.deleteById(instanceId());
+        } catch (DataAccessException ex) {
+            log.warn("Could not release leases on shutdown: {}", ex.getMessage());
+        }
+        owned.clear();
+    }
+}
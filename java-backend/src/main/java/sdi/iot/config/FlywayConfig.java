@@ -0,0 +1,30 @@
+package sdi.iot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Runs the Flyway migration only when {@code app.db.migrate} ({@code DB_MIGRATE})
+ * is true; it is off by default. {@code spring.flyway.enabled} stays true so the
+ * Flyway beans are always in the bean graph: AOT-processed jars evaluate that
+ * condition at build time, while this flag is read at startup.
+ */
+@Configuration
+public class FlywayConfig {
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment env) {
+        return flyway -> {
+            if (env.getProperty("app.db.migrate", Boolean.class, false)) {
+                flyway.migrate();
+            } else {
+                log.info("app.db.migrate=false, skipping database migration");
+            }
+        };
+    }
+}
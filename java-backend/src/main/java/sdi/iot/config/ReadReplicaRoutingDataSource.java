@@ -0,0 +1,47 @@
+package sdi.iot.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read-only transactions to the replica while the
+ * {@link ReplicaLagMonitor} allows it; everything else goes to the primary.
+ * Must sit behind a {@code LazyConnectionDataSourceProxy} so the lookup happens
+ * after the transaction's read-only flag is set.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor monitor;
+    private final LongAdder primaryLookups = new LongAdder();
+    private final LongAdder replicaLookups = new LongAdder();
+
+    public ReadReplicaRoutingDataSource(Object primary, Object replica, ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && monitor.isReplicaUsable()) {
+            replicaLookups.increment();
+            return REPLICA;
+        }
+        primaryLookups.increment();
+        return PRIMARY;
+    }
+
+    public long primaryLookups() {
+        return primaryLookups.sum();
+    }
+
+    public long replicaLookups() {
+        return replicaLookups.sum();
+    }
+}
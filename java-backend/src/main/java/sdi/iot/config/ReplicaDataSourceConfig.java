@@ -0,0 +1,84 @@
+package sdi.iot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separate Hikari pools for the primary ({@code spring.datasource.*}) and a read
+ * replica ({@code app.datasource.replica.*}). Read-only transactions use the
+ * replica; writes and non-transactional JDBC use the primary.
+ *
+ * The beans are always defined and {@code app.datasource.replica.enabled} is read
+ * by {@link ReplicaLagMonitor} at runtime, because AOT-processed builds fix
+ * {@code @Conditional} choices at build time. While it is off the replica pool
+ * never opens a connection and every lookup goes to the primary.
+ */
+@Configuration
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setDriverClassName(properties.getDriverClassName());
+        ds.setJdbcUrl(url);
+        ds.setUsername(username);
+        ds.setPassword(password);
+        ds.setReadOnly(true);
+        ds.setPoolName("replica");
+        return ds;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                                               @Value("${app.datasource.replica.lag-check:replica-status}") String mode,
+                                               @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds) {
+        return new ReplicaLagMonitor(new JdbcTemplate(replica), enabled, mode, maxLagSeconds);
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                                     @Qualifier("replicaDataSource") DataSource replica,
+                                                                     ReplicaLagMonitor monitor) {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, monitor);
+        monitor.attach(routing);
+        return routing;
+    }
+
+    // Replaces Boot's per-DataSource "db" check, which would also probe the replica pool
+    // (opening it even when disabled); replica state is reported by replicaLagMonitor
+    @Bean
+    public HealthContributor dbHealthContributor(@Qualifier("primaryDataSource") DataSource primary) {
+        return new DataSourceHealthIndicator(primary);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
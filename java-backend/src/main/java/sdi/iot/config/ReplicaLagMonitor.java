@@ -0,0 +1,113 @@
+package sdi.iot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides whether read-only transactions may use the replica. The replica is
+ * dropped (reads go to the primary) when it is unreachable, replication is
+ * stopped, or it is more than {@code max-lag-seconds} behind.
+ *
+ * {@code lag-check: replica-status} reads {@code SHOW REPLICA STATUS}
+ * (falling back to {@code SHOW SLAVE STATUS}); {@code none} only checks
+ * connectivity, for two independent local databases.
+ */
+public class ReplicaLagMonitor implements HealthIndicator {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final boolean enabled;
+    private final String mode;
+    private final long maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile Long lagSeconds;
+    private volatile String reason = "not checked yet";
+    private ReadReplicaRoutingDataSource routing;
+
+    public ReplicaLagMonitor(JdbcTemplate replica, boolean enabled, String mode, long maxLagSeconds) {
+        this.replica = replica; this.enabled = enabled; this.mode = mode; this.maxLagSeconds = maxLagSeconds;
+        if (!enabled) reason = "disabled (app.datasource.replica.enabled=false)";
+    }
+
+    void attach(ReadReplicaRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void check() {
+        if (!enabled) return;
+        boolean wasUsable = usable;
+        try {
+            if ("none".equalsIgnoreCase(mode)) {
+                replica.queryForObject("select 1", Integer.class);
+                update(true, 0L, "connectivity only");
+            } else {
+                Long lag = replicationLag();
+                if (lag == null) {
+                    update(false, null, "replication not running");
+                } else if (lag > maxLagSeconds) {
+                    update(false, lag, "lag " + lag + "s > " + maxLagSeconds + "s");
+                } else {
+                    update(true, lag, "ok");
+                }
+            }
+        } catch (DataAccessException ex) {
+            update(false, null, "unreachable: " + ex.getMessage());
+        }
+        if (wasUsable != usable) {
+            if (usable) log.info("Replica usable again ({}); routing read-only transactions to it", reason);
+            else log.warn("Replica not usable ({}); routing reads to primary", reason);
+        }
+    }
+
+    private Long replicationLag() {
+        List<Map<String, Object>> rows;
+        String column;
+        try {
+            rows = replica.queryForList("SHOW REPLICA STATUS");
+            column = "Seconds_Behind_Source";
+        } catch (DataAccessException ex) {
+            // MySQL < 8.0.22
+            rows = replica.queryForList("SHOW SLAVE STATUS");
+            column = "Seconds_Behind_Master";
+        }
+        if (rows.isEmpty()) return null;
+        Object v = rows.get(0).get(column);
+        return v instanceof Number n ? n.longValue() : null;
+    }
+
+    private void update(boolean usable, Long lagSeconds, String reason) {
+        this.lagSeconds = lagSeconds;
+        this.reason = reason;
+        this.usable = usable;
+    }
+
+    @Override
+    public Health health() {
+        // An unusable replica does not make the application DOWN: reads go to the primary
+        Health.Builder health = Health.up()
+                .withDetail("enabled", enabled)
+                .withDetail("routing", usable ? "replica" : "primary")
+                .withDetail("lagSeconds", lagSeconds == null ? "unknown" : lagSeconds)
+                .withDetail("maxLagSeconds", maxLagSeconds)
+                .withDetail("reason", reason);
+        if (routing != null) {
+            health.withDetail("primaryLookups", routing.primaryLookups())
+                    .withDetail("replicaLookups", routing.replicaLookups());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,63 @@
+package sdi.iot.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "alert_log", indexes = {
+        @Index(name = "idx_alert_log_time", columnList = "created_at"),
+        @Index(name = "idx_alert_log_sensor_time", columnList = "sensor_id, created_at")
+})
+public class AlertLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rule_id", nullable = false)
+    private Long ruleId;
+
+    @Column(name = "sensor_id", nullable = false)
+    private Long sensorId;
+
+    @Column(nullable = false, length = 16)
+    private String kind;
+
+    @Column(nullable = false, length = 16)
+    private String state; // fired, resolved
+
+    @Column(name = "value")
+    private Double value;
+
+    @Column(nullable = false)
+    private double metric;
+
+    @Column(nullable = false)
+    private double threshold;
+
+    @Column(name = "instance_id", length = 64)
+    private String instanceId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getRuleId() { return ruleId; }
+    public void setRuleId(Long ruleId) { this.ruleId = ruleId; }
+    public Long getSensorId() { return sensorId; }
+    public void setSensorId(Long sensorId) { this.sensorId = sensorId; }
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public Double getValue() { return value; }
+    public void setValue(Double value) { this.value = value; }
+    public double getMetric() { return metric; }
+    public void setMetric(double metric) { this.metric = metric; }
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+    public String getInstanceId() { return instanceId; }
+    public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,68 @@
+package sdi.iot.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "alert_rules", indexes = {
+        @Index(name = "idx_alert_rules_sensor", columnList = "sensor_id"),
+        @Index(name = "idx_alert_rules_type", columnList = "sensor_type")
+})
+public class AlertRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sensor_id")
+    private Long sensorId; // null => applies to every sensor of type sensorType
+
+    @Column(name = "sensor_type", length = 40)
+    private String sensorType;
+
+    @Column(nullable = false, length = 16)
+    private String kind; // threshold, rate, stale, zscore
+
+    @Column(nullable = false, length = 8)
+    private String direction = "above"; // above, below, both
+
+    @Column(nullable = false)
+    private double threshold;
+
+    @Column(nullable = false)
+    private double hysteresis;
+
+    @Column(name = "window_size", nullable = false)
+    private int windowSize; // stale: seconds without a reading; zscore: number of readings
+
+    @Column(name = "cooldown_seconds", nullable = false)
+    private int cooldownSeconds;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getSensorId() { return sensorId; }
+    public void setSensorId(Long sensorId) { this.sensorId = sensorId; }
+    public String getSensorType() { return sensorType; }
+    public void setSensorType(String sensorType) { this.sensorType = sensorType; }
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+    public double getHysteresis() { return hysteresis; }
+    public void setHysteresis(double hysteresis) { this.hysteresis = hysteresis; }
+    public int getWindowSize() { return windowSize; }
+    public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+    public int getCooldownSeconds() { return cooldownSeconds; }
+    public void setCooldownSeconds(int cooldownSeconds) { this.cooldownSeconds = cooldownSeconds; }
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
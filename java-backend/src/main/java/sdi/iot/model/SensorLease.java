@@ -0,0 +1,32 @@
+package sdi.iot.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "sensor_leases", indexes = {
+        @Index(name = "idx_lease_owner_expiry", columnList = "owner_id, expires_at")
+})
+public class SensorLease {
+    @Id
+    @Column(name = "sensor_id")
+    private Long sensorId;
+
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId;
+
+    @Column(name = "acquired_at", nullable = false)
+    private Instant acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public Long getSensorId() { return sensorId; }
+    public void setSensorId(Long sensorId) { this.sensorId = sensorId; }
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+    public Instant getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(Instant acquiredAt) { this.acquiredAt = acquiredAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -5,7 +5,8 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "sensor_readings", indexes = {
-        @Index(name = "idx_sensor_time", columnList = "sensor_id, created_at")
+        @Index(name = "idx_readings_sensor_time_value", columnList = "sensor_id, created_at, value"),
+        @Index(name = "sensor_readings_created_at_index", columnList = "created_at")
 })
 public class SensorReading {
     @Id
@@ -0,0 +1,18 @@
+package sdi.iot.repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sdi.iot.model.AlertLogEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AlertLogRepository extends JpaRepository<AlertLogEntry, Long> {
+    @Query("select a from AlertLogEntry a where a.createdAt > :after order by a.createdAt desc")
+    List<AlertLogEntry> recent(@Param("after") Instant after, Pageable pageable);
+
+    @Query("select a from AlertLogEntry a where a.sensorId = :sensorId and a.createdAt > :after order by a.createdAt desc")
+    List<AlertLogEntry> recentForSensor(@Param("sensorId") long sensorId, @Param("after") Instant after, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package sdi.iot.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import sdi.iot.model.AlertRule;
+
+import java.util.List;
+
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+    List<AlertRule> findByEnabledTrue();
+}
@@ -0,0 +1,28 @@
+package sdi.iot.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import sdi.iot.model.ClusterNode;
+
+import java.util.List;
+
+// Heartbeats use the database clock, like the leases (see SensorLeaseRepository)
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+    @Transactional
+    @Modifying
+    @Query(value = "insert into cluster_nodes (instance_id, base_url, started_at, heartbeat_at) values (:id, :baseUrl, now(3), now(3)) " +
+        "on duplicate key update base_url = values(base_url), heartbeat_at = values(heartbeat_at)", nativeQuery = true)
+    int heartbeat(@Param("id") String instanceId, @Param("baseUrl") String baseUrl);
+
+    @Query(value = "select * from cluster_nodes where heartbeat_at > now(3) - interval :ttlMs * 1000 microsecond " +
+        "order by instance_id asc", nativeQuery = true)
+    List<ClusterNode> findLive(@Param("ttlMs") long ttlMs);
+
+    @Transactional
+    @Modifying
+    @Query(value = "delete from cluster_nodes where heartbeat_at < now(3) - interval :ageMs * 1000 microsecond", nativeQuery = true)
+    int deleteStale(@Param("ageMs") long ageMs);
+}
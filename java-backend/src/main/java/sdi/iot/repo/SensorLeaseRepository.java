@@ -0,0 +1,55 @@
+package sdi.iot.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import sdi.iot.model.SensorLease;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Lease times come from the database clock (now(3)), never from the JVM: instances on
+// different hosts must agree on when a lease has expired.
+public interface SensorLeaseRepository extends JpaRepository<SensorLease, Long> {
+    @Query(value = "select sensor_id from sensor_leases where owner_id = :owner and expires_at > now(3)", nativeQuery = true)
+    List<Long> findHeldSensorIds(@Param("owner") String owner);
+
+    @Query(value = "select * from sensor_leases where expires_at > now(3)", nativeQuery = true)
+    List<SensorLease> findActive();
+
+    @Query(value = "select * from sensor_leases where sensor_id = :sensorId and expires_at > now(3)", nativeQuery = true)
+    Optional<SensorLease> findActiveBySensorId(@Param("sensorId") long sensorId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert ignore into sensor_leases (sensor_id, owner_id, acquired_at, expires_at) " +
+        "values (:sensorId, :owner, now(3), now(3) + interval :ttlMs * 1000 microsecond)", nativeQuery = true)
+    int tryInsert(@Param("sensorId") long sensorId, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    // acquired_at is set before owner_id: MySQL evaluates SET assignments left to right
+    @Transactional
+    @Modifying
+    @Query(value = "update sensor_leases set acquired_at = case when owner_id = :owner then acquired_at else now(3) end, " +
+        "owner_id = :owner, expires_at = now(3) + interval :ttlMs * 1000 microsecond " +
+        "where sensor_id = :sensorId and (owner_id = :owner or expires_at < now(3))", nativeQuery = true)
+    int tryTakeOver(@Param("sensorId") long sensorId, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update sensor_leases set expires_at = now(3) + interval :ttlMs * 1000 microsecond " +
+        "where owner_id = :owner and sensor_id in (:ids)", nativeQuery = true)
+    int renew(@Param("owner") String owner, @Param("ids") Collection<Long> sensorIds, @Param("ttlMs") long ttlMs);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SensorLease l where l.ownerId = :owner and l.sensorId in :ids")
+    int release(@Param("owner") String owner, @Param("ids") Collection<Long> sensorIds);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SensorLease l where l.ownerId = :owner")
+    int releaseAll(@Param("owner") String owner);
+}
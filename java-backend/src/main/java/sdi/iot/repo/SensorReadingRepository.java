@@ -4,6 +4,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import sdi.iot.model.Sensor;
 import sdi.iot.model.SensorReading;
 
@@ -11,7 +12,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
+// Query methods get no transaction from Spring Data; readOnly routes each call to the replica when one is configured
 public interface SensorReadingRepository extends JpaRepository<SensorReading, Long> {
+    @Transactional(readOnly = true)
     List<SensorReading> findBySensorAndCreatedAtAfterOrderByCreatedAtDesc(Sensor sensor, Instant after);
 
     @Query("select r from SensorReading r where r.sensor = :sensor and r.createdAt > :after order by r.createdAt desc")
@@ -32,11 +35,19 @@ public interface SensorReadingRepository extends JpaRepository<SensorReading, Lo
     @Query("select avg(r.value) as avg, min(r.value) as min, max(r.value) as max, count(r) as cnt from SensorReading r where r.sensor = :sensor and r.createdAt > :after")
     SensorStats statsForSensor(@Param("sensor") Sensor sensor, @Param("after") Instant after);
 
-    @Query(value = "select " +
-        "case when upper(:period) = 'DAY' " +
-        "     then DATE_FORMAT(created_at, '%Y-%m-%d 00:00:00') " +
-        "     else DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00') end as bucket, " +
-        "avg(value) as avg, min(value) as min, max(value) as max, count(*) as cnt " +
-        "from sensor_readings where sensor_id = :sensorId and created_at > :after group by bucket order by bucket asc", nativeQuery = true)
-    List<Object[]> aggregates(@Param("sensorId") long sensorId, @Param("after") Instant after, @Param("period") String period);
+    // bucket_hour / bucket_day are generated columns (V4), indexed with sensor_id, created_at and value.
+    // :from is the first bucket and :after the window start, both 'yyyy-MM-dd HH:mm:ss' strings in UTC,
+    // so they skip the driver's time zone conversion. The created_at filter keeps the first bucket partial,
+    // as in the in-memory fallback, and is checked from the index.
+    @Transactional(readOnly = true)
+    @Query(value = "select bucket_hour as bucket, avg(value) as avg, min(value) as min, max(value) as max, count(*) as cnt " +
+        "from sensor_readings where sensor_id = :sensorId and bucket_hour >= :from and created_at > :after " +
+        "group by bucket_hour order by bucket_hour asc", nativeQuery = true)
+    List<Object[]> hourlyAggregates(@Param("sensorId") long sensorId, @Param("from") String from, @Param("after") String after);
+
+    @Transactional(readOnly = true)
+    @Query(value = "select timestamp(bucket_day) as bucket, avg(value) as avg, min(value) as min, max(value) as max, count(*) as cnt " +
+        "from sensor_readings where sensor_id = :sensorId and bucket_day >= :from and created_at > :after " +
+        "group by bucket_day order by bucket_day asc", nativeQuery = true)
+    List<Object[]> dailyAggregates(@Param("sensorId") long sensorId, @Param("from") String from, @Param("after") String after);
 }
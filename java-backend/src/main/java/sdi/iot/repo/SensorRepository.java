@@ -11,4 +11,7 @@ public interface SensorRepository extends JpaRepository<Sensor, Long> {
 
     @Query("select s from Sensor s order by s.id asc")
     List<Sensor> findAllOrdered();
+
+    @Query("select s.id from Sensor s order by s.id asc")
+    List<Long> findAllIds();
 }
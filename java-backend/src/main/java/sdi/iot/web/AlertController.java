@@ -0,0 +1,120 @@
+package sdi.iot.web;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import sdi.iot.alerts.AlertEngine;
+import sdi.iot.model.AlertLogEntry;
+import sdi.iot.model.AlertRule;
+import sdi.iot.repo.AlertLogRepository;
+import sdi.iot.repo.AlertRuleRepository;
+import sdi.iot.repo.SensorRepository;
+import sdi.iot.web.dto.AlertDtos.*;
+import sdi.iot.web.dto.ApiResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping(path = "/api/alerts", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AlertController {
+    private static final Set<String> KINDS = Set.of("threshold", "rate", "stale", "zscore");
+    private static final Set<String> DIRECTIONS = Set.of("above", "below", "both");
+
+    private final AlertRuleRepository rules;
+    private final AlertLogRepository alertLog;
+    private final SensorRepository sensors;
+    private final AlertEngine engine;
+
+    public AlertController(AlertRuleRepository rules, AlertLogRepository alertLog, SensorRepository sensors, AlertEngine engine) {
+        this.rules = rules; this.alertLog = alertLog; this.sensors = sensors; this.engine = engine;
+    }
+
+    @GetMapping("/rules")
+    public ApiResponse<List<RuleItem>> listRules() {
+        return ApiResponse.ok(rules.findAll().stream().map(AlertController::toItem).toList());
+    }
+
+    @PostMapping("/rules")
+    public ApiResponse<RuleItem> createRule(@RequestBody RuleRequest req) {
+        if (req.kind() == null || !KINDS.contains(req.kind())) {
+            return ApiResponse.error("Invalid kind (must be one of threshold, rate, stale, zscore)");
+        }
+        String direction = req.direction() == null ? ("zscore".equals(req.kind()) ? "both" : "above") : req.direction();
+        if (!DIRECTIONS.contains(direction)) {
+            return ApiResponse.error("Invalid direction (must be above, below or both)");
+        }
+        if ((req.sensor_id() == null) == (req.sensor_type() == null || req.sensor_type().isBlank())) {
+            return ApiResponse.error("Exactly one of sensor_id or sensor_type is required");
+        }
+        if (req.sensor_id() != null && !sensors.existsById(req.sensor_id())) {
+            return ApiResponse.error("Unknown sensor " + req.sensor_id());
+        }
+        int window = req.window_size() == null ? 0 : req.window_size();
+        if (("stale".equals(req.kind()) || "zscore".equals(req.kind())) && window < 1) {
+            return ApiResponse.error("window_size is required for stale (seconds) and zscore (readings) rules");
+        }
+        if (!"stale".equals(req.kind()) && req.threshold() == null) {
+            return ApiResponse.error("threshold is required");
+        }
+        double hysteresis = req.hysteresis() == null ? 0 : req.hysteresis();
+        if (hysteresis < 0) {
+            return ApiResponse.error("hysteresis must be >= 0");
+        }
+
+        AlertRule r = new AlertRule();
+        r.setSensorId(req.sensor_id());
+        r.setSensorType(req.sensor_id() == null ? req.sensor_type() : null);
+        r.setKind(req.kind());
+        r.setDirection("stale".equals(req.kind()) ? "above" : direction);
+        r.setThreshold("stale".equals(req.kind()) ? window : req.threshold());
+        r.setHysteresis(hysteresis);
+        r.setWindowSize(window);
+        r.setCooldownSeconds(req.cooldown_seconds() == null ? 0 : Math.max(0, req.cooldown_seconds()));
+        r.setEnabled(req.enabled() == null || req.enabled());
+        rules.save(r);
+        engine.reloadRules();
+        return ApiResponse.ok(toItem(r));
+    }
+
+    @DeleteMapping("/rules/{id}")
+    public ApiResponse<Map<String, String>> deleteRule(@PathVariable long id) {
+        if (!rules.existsById(id)) {
+            return ApiResponse.error("Unknown rule " + id);
+        }
+        rules.deleteById(id);
+        engine.reloadRules();
+        return ApiResponse.ok(Map.of("message", "Rule deleted"));
+    }
+
+    @GetMapping("/log")
+    public ApiResponse<List<LogItem>> log(@RequestParam(defaultValue = "24") int hours,
+                                          @RequestParam(required = false) Long sensorId,
+                                          @RequestParam(defaultValue = "200") int limit) {
+        Instant after = Instant.now().minus(Duration.ofHours(hours));
+        var page = PageRequest.of(0, Math.max(1, Math.min(1000, limit)));
+        List<AlertLogEntry> list = sensorId == null
+                ? alertLog.recent(after, page)
+                : alertLog.recentForSensor(sensorId, after, page);
+        return ApiResponse.ok(list.stream().map(a -> new LogItem(a.getId(), a.getRuleId(), a.getSensorId(), a.getKind(),
+                a.getState(), a.getValue(), a.getMetric(), a.getThreshold(), a.getInstanceId(), a.getCreatedAt())).toList());
+    }
+
+    @GetMapping("/active")
+    public ApiResponse<List<AlertEngine.ActiveAlert>> active() {
+        return ApiResponse.ok(engine.activeAlerts());
+    }
+
+    @GetMapping("/stats")
+    public ApiResponse<AlertEngine.Stats> stats() {
+        return ApiResponse.ok(engine.stats());
+    }
+
+    private static RuleItem toItem(AlertRule r) {
+        return new RuleItem(r.getId(), r.getSensorId(), r.getSensorType(), r.getKind(), r.getDirection(), r.getThreshold(),
+                r.getHysteresis(), r.getWindowSize(), r.getCooldownSeconds(), r.isEnabled());
+    }
+}
@@ -0,0 +1,61 @@
+package sdi.iot.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import sdi.iot.cluster.SensorOwnershipService;
+import sdi.iot.model.SensorLease;
+import sdi.iot.repo.ClusterNodeRepository;
+import sdi.iot.repo.SensorLeaseRepository;
+import sdi.iot.web.dto.ApiResponse;
+
+import java.util.*;
+
+@RestController
+@RequestMapping(path = "/api/cluster", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ClusterController {
+    private final SensorOwnershipService ownership;
+    private final ClusterNodeRepository nodes;
+    private final SensorLeaseRepository leases;
+
+    public ClusterController(SensorOwnershipService ownership, ClusterNodeRepository nodes, SensorLeaseRepository leases) {
+        this.ownership = ownership; this.nodes = nodes; this.leases = leases;
+    }
+
+    @GetMapping
+    public ApiResponse<Map<String, Object>> status() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enabled", ownership.isEnabled());
+        data.put("instance_id", ownership.instanceId());
+        data.put("owned_sensors", ownership.ownedSensorIds().size());
+        if (ownership.isEnabled()) {
+            Map<String, Integer> perOwner = new TreeMap<>();
+            for (SensorLease l : leases.findActive()) {
+                perOwner.merge(l.getOwnerId(), 1, Integer::sum);
+            }
+            List<Map<String, Object>> members = new ArrayList<>();
+            // Same liveness window as the ring, so a crashed instance drops out when its leases do
+            for (var n : nodes.findLive(ownership.leaseTtlMs())) {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("instance_id", n.getInstanceId());
+                m.put("base_url", n.getBaseUrl());
+                m.put("heartbeat_at", n.getHeartbeatAt());
+                m.put("leases", perOwner.getOrDefault(n.getInstanceId(), 0));
+                members.add(m);
+            }
+            data.put("members", members);
+        }
+        return ApiResponse.ok(data);
+    }
+
+    @GetMapping("/owner/{sensorId}")
+    public ApiResponse<Map<String, Object>> owner(@PathVariable long sensorId) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("sensor_id", sensorId);
+        data.put("ring_owner", ownership.isEnabled() ? ownership.ring().ownerOf(sensorId) : ownership.instanceId());
+        data.put("lease_owner", leases.findActiveBySensorId(sensorId)
+                .map(SensorLease::getOwnerId)
+                .orElse(null));
+        data.put("owned_here", ownership.owns(sensorId));
+        return ApiResponse.ok(data);
+    }
+}
@@ -3,21 +3,26 @@ package sdi.iot.web;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import sdi.iot.config.ContentNegotiationConfig;
 import sdi.iot.model.Sensor;
 import sdi.iot.model.SensorReading;
 import sdi.iot.repo.SensorReadingRepository;
 import sdi.iot.repo.SensorRepository;
+import sdi.iot.web.dto.ApiResponse;
+import sdi.iot.web.dto.SensorDtos.Reading;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/export")
+@Transactional(readOnly = true)
 public class ExportController {
     private final SensorRepository sensors;
     private final SensorReadingRepository readings;
@@ -26,17 +31,18 @@ public class ExportController {
         this.sensors = sensors; this.readings = readings;
     }
 
-    @GetMapping("/sensors/{id}.json")
-    public ResponseEntity<?> exportJson(@PathVariable long id, @RequestParam(defaultValue = "24") int hours) {
+    @GetMapping(value = "/sensors/{id}.json", produces = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE,
+            ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    public ApiResponse<Map<String, Object>> exportJson(@PathVariable long id, @RequestParam(defaultValue = "24") int hours) {
         Sensor s = sensors.findById(id).orElseThrow();
         Instant after = Instant.now().minus(Duration.ofHours(hours));
-        List<SensorReading> list = readings.findBySensorAndCreatedAtAfterOrderByCreatedAtDesc(s, after);
-        String json = list.stream()
-                .map(r -> String.format("{\"value\":%s,\"timestamp\":\"%s\"}", r.getValue(), r.getCreatedAt()))
-                .collect(Collectors.joining(",","[", "]"));
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body("{\"success\":true,\"data\":{\"readings\": " + json + "}} ");
+        List<Reading> list = readings.findBySensorAndCreatedAtAfterOrderByCreatedAtDesc(s, after).stream()
+                .map(r -> new Reading(r.getValue(), r.getCreatedAt()))
+                .toList();
+        return ApiResponse.ok(Map.of("readings", list));
     }
 
     @GetMapping(value = "/sensors/{id}.csv", produces = "text/csv")
@@ -5,7 +5,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import sdi.iot.analytics.HeatmapService;
+import sdi.iot.config.ContentNegotiationConfig;
 import sdi.iot.model.Sensor;
 import sdi.iot.model.SensorReading;
 import sdi.iot.repo.SensorReadingRepository;
@@ -16,22 +19,34 @@ import sdi.iot.web.dto.SensorDtos.*;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
-@RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api", produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE,
+        ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+})
 public class SensorController {
     private static final Logger log = LoggerFactory.getLogger(SensorController.class);
     private final SensorRepository sensors;
     private final SensorReadingRepository readings;
+    private final HeatmapService heatmaps;
+    private static final DateTimeFormatter BUCKET_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter AFTER_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
     private final AtomicBoolean nativeAggregationDisabled = new AtomicBoolean(false);
 
-    public SensorController(SensorRepository sensors, SensorReadingRepository readings) {
-        this.sensors = sensors; this.readings = readings;
+    public SensorController(SensorRepository sensors, SensorReadingRepository readings, HeatmapService heatmaps) {
+        this.sensors = sensors; this.readings = readings; this.heatmaps = heatmaps;
     }
 
     @GetMapping("/sensors")
+    @Transactional(readOnly = true)
     public ApiResponse<List<SensorItem>> listSensors() {
         List<Sensor> all = sensors.findAllOrdered();
         List<SensorItem> out = new ArrayList<>();
@@ -45,6 +60,7 @@ public class SensorController {
     }
 
     @GetMapping("/sensors/statistics")
+    @Transactional(readOnly = true)
     public ApiResponse<List<StatItem>> statistics(@RequestParam(defaultValue = "24") int hours) {
         Instant after = Instant.now().minus(Duration.ofHours(hours));
         List<StatItem> out = new ArrayList<>();
@@ -60,6 +76,7 @@ public class SensorController {
     }
 
     @GetMapping("/sensors/{id}/readings")
+    @Transactional(readOnly = true)
     public ApiResponse<Map<String, Object>> readingsBySensor(@PathVariable long id,
                                                              @RequestParam(defaultValue = "2") int hours,
                                                              @RequestParam(required = false) Integer limit) {
@@ -79,6 +96,7 @@ public class SensorController {
     }
 
     @GetMapping("/sensors/stream")
+    @Transactional(readOnly = true)
     public ApiResponse<Map<String, Object>> globalStream(@RequestParam(defaultValue = "10") int limit) {
         var list = readings.globalStream(PageRequest.of(0, Math.max(1, Math.min(1000, limit))));
         var mapped = list.stream().map(r -> new StreamItem(
@@ -90,6 +108,8 @@ public class SensorController {
         return ApiResponse.ok(Map.of("readings", mapped));
     }
 
+    // No outer transaction: a failing native query would mark it rollback-only and the fallback would fail on commit.
+    // Each repository call below is @Transactional(readOnly = true) on its own, so it still goes to the replica.
     @GetMapping("/sensors/{id}/aggregates")
     public ApiResponse<List<AggregatePoint>> aggregates(@PathVariable long id,
                                                         @RequestParam(defaultValue = "24") int hours,
@@ -101,7 +121,13 @@ public class SensorController {
         };
         if (!nativeAggregationDisabled.get()) {
             try {
-                var rows = readings.aggregates(s.getId(), after, p);
+                // The bucket range selects the index range; created_at > after trims the first bucket
+                LocalDateTime start = LocalDateTime.ofInstant(after, ZoneOffset.UTC);
+                String fromBucket = start.truncatedTo("day".equals(p) ? ChronoUnit.DAYS : ChronoUnit.HOURS).format(BUCKET_FORMAT);
+                String afterUtc = start.format(AFTER_FORMAT);
+                var rows = "day".equals(p)
+                        ? readings.dailyAggregates(s.getId(), fromBucket, afterUtc)
+                        : readings.hourlyAggregates(s.getId(), fromBucket, afterUtc);
                 var out = rows.stream().map(this::mapAggregateRow).toList();
                 return ApiResponse.ok(out);
             } catch (DataAccessException | UnsupportedOperationException ex) {
@@ -115,6 +141,7 @@ public class SensorController {
     }
 
     @GetMapping("/sensors/{id}/anomalies")
+    @Transactional(readOnly = true)
     public ApiResponse<List<Anomaly>> anomalies(@PathVariable long id,
                                                 @RequestParam(defaultValue = "24") int hours,
                                                 @RequestParam(defaultValue = "3.0") double z) {
@@ -139,6 +166,22 @@ public class SensorController {
         return ApiResponse.ok(out);
     }
 
+    @GetMapping("/sensors/{id}/heatmap")
+    @Transactional(readOnly = true)
+    public ApiResponse<Heatmap> heatmap(@PathVariable long id,
+                                        @RequestParam(defaultValue = "24") int hours,
+                                        @RequestParam(defaultValue = "20") int bins,
+                                        @RequestParam(defaultValue = "hour") String period) {
+        Sensor s = sensors.findById(id).orElseThrow();
+        Instant after = Instant.now().minus(Duration.ofHours(Math.max(1, Math.min(24 * 366, hours))));
+        String p = switch (period) {
+            case "day" -> "day"; default -> "hour";
+        };
+        var h = heatmaps.compute(s.getId(), after, p, Math.max(2, Math.min(200, bins)));
+        return ApiResponse.ok(new Heatmap(h.start(), h.period(), h.bucketSeconds(), h.rows(), h.bins(), h.edges(), h.counts(),
+                h.total(), h.belowRange(), h.aboveRange(), h.rollupBuckets()));
+    }
+
     private AggregatePoint mapAggregateRow(Object[] r) {
         java.time.Instant bucket;
         Object b = r[0];
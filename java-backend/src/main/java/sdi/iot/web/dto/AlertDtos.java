@@ -0,0 +1,12 @@
+package sdi.iot.web.dto;
+
+import java.time.Instant;
+
+public class AlertDtos {
+    public record RuleRequest(Long sensor_id, String sensor_type, String kind, String direction, Double threshold,
+                              Double hysteresis, Integer window_size, Integer cooldown_seconds, Boolean enabled) {}
+    public record RuleItem(Long id, Long sensor_id, String sensor_type, String kind, String direction, double threshold,
+                           double hysteresis, int window_size, int cooldown_seconds, boolean enabled) {}
+    public record LogItem(Long id, Long rule_id, Long sensor_id, String kind, String state, Double value,
+                          double metric, double threshold, String instance_id, Instant timestamp) {}
+}
@@ -9,4 +9,7 @@ public class SensorDtos {
     public record StreamItem(String type, String unit, double value, Instant timestamp) {}
     public record AggregatePoint(Instant bucket_start, Double avg, Double min, Double max, Integer cnt) {}
     public record Anomaly(Instant timestamp, double value, double zscore) {}
+    // counts: rows x bins, row-major; edges: bins + 1 bounds; values outside [edges[0], edges[bins]] go to the edge bin
+    public record Heatmap(Instant start, String period, long bucket_seconds, int rows, int bins, double[] edges, int[] counts,
+                          long total, long below_range, long above_range, int rollup_buckets) {}
 }
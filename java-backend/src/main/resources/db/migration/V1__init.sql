@@ -1,36 +1,71 @@
-create table sensors (
-  id bigserial primary key,
-  node_id varchar(64),
-  name varchar(100) not null,
-  type varchar(40) not null,
-  unit varchar(16) not null,
-  created_at timestamp not null default now()
-);
+-- Schema de bază pentru tabelele folosite de backend, identică cu cea creată de migrațiile Laravel
+-- (aceleași nume de coloane și indecși). "if not exists": pe o bază creată deja de Laravel este no-op.
 
-create table sensor_readings (
-  id bigserial primary key,
-  sensor_id bigint not null references sensors(id) on delete cascade,
-  reading_value double precision not null,
-  created_at timestamp not null default now()
-);
-create index idx_sensor_time on sensor_readings(sensor_id, created_at);
+create table if not exists sensors (
+  id bigint unsigned not null auto_increment primary key,
+  node_id varchar(255) not null,
+  sensor_type varchar(255) not null,
+  name varchar(255) not null,
+  description text null,
+  unit varchar(255) null,
+  mqtt_topic varchar(255) not null,
+  is_active tinyint(1) not null default 1,
+  created_at timestamp null,
+  updated_at timestamp null,
+  unique key sensors_node_id_sensor_type_unique (node_id, sensor_type),
+  unique key sensors_mqtt_topic_unique (mqtt_topic),
+  key sensors_node_id_index (node_id),
+  key sensors_sensor_type_index (sensor_type),
+  key sensors_mqtt_topic_index (mqtt_topic)
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
 
-create table aggregated_readings (
-  id bigserial primary key,
-  sensor_id bigint not null references sensors(id) on delete cascade,
+create table if not exists sensor_readings (
+  id bigint unsigned not null auto_increment primary key,
+  sensor_id bigint unsigned not null,
+  value double not null,
+  raw_data json null,
+  created_at timestamp not null default current_timestamp,
+  updated_at timestamp null,
+  key sensor_readings_sensor_id_index (sensor_id),
+  key sensor_readings_created_at_index (created_at),
+  key sensor_readings_sensor_id_created_at_index (sensor_id, created_at),
+  constraint sensor_readings_sensor_id_foreign foreign key (sensor_id) references sensors (id) on delete cascade
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
+
+create table if not exists aggregated_readings (
+  id bigint unsigned not null auto_increment primary key,
+  sensor_id bigint unsigned not null,
+  period enum('hour', 'day', 'week') not null,
   bucket_start timestamp not null,
-  period varchar(10) not null,
-  avg double precision,
-  min double precision,
-  max double precision,
-  cnt int,
-  unique(sensor_id, bucket_start, period)
-);
+  avg_value decimal(10, 3) null,
+  min_value decimal(10, 3) null,
+  max_value decimal(10, 3) null,
+  count int unsigned not null default 0,
+  created_at timestamp null,
+  updated_at timestamp null,
+  unique key aggregated_readings_sensor_id_period_bucket_start_unique (sensor_id, period, bucket_start),
+  key aggregated_readings_sensor_id_period_index (sensor_id, period),
+  constraint aggregated_readings_sensor_id_foreign foreign key (sensor_id) references sensors (id) on delete cascade
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
+
+create table if not exists api_tokens (
+  id bigint unsigned not null auto_increment primary key,
+  name varchar(255) not null,
+  active tinyint(1) not null default 1,
+  token varchar(255) not null,
+  abilities json null,
+  last_used_at timestamp null,
+  created_at timestamp null,
+  updated_at timestamp null,
+  unique key api_tokens_token_unique (token)
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
 
-create table api_tokens (
-  id bigserial primary key,
-  token varchar(120) not null unique,
-  name varchar(100),
-  active boolean not null default true,
-  created_at timestamp not null default now()
-);
+create table if not exists app_settings (
+  id bigint unsigned not null auto_increment primary key,
+  `key` varchar(255) not null,
+  value json null,
+  created_at timestamp null,
+  updated_at timestamp null,
+  unique key app_settings_key_unique (`key`),
+  key app_settings_key_index (`key`)
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
@@ -0,0 +1,51 @@
+-- Tabele proprii backend-ului: lease-uri pe senzori între instanțe și motorul de alerte.
+
+create table if not exists cluster_nodes (
+  instance_id varchar(64) not null primary key,
+  base_url varchar(255) null,
+  started_at timestamp(3) not null,
+  heartbeat_at timestamp(3) not null,
+  key cluster_nodes_heartbeat_at_index (heartbeat_at)
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
+
+create table if not exists sensor_leases (
+  sensor_id bigint unsigned not null primary key,
+  owner_id varchar(64) not null,
+  acquired_at timestamp(3) not null,
+  expires_at timestamp(3) not null,
+  key idx_lease_owner_expiry (owner_id, expires_at),
+  constraint sensor_leases_sensor_id_foreign foreign key (sensor_id) references sensors (id) on delete cascade
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
+
+create table if not exists alert_rules (
+  id bigint unsigned not null auto_increment primary key,
+  sensor_id bigint unsigned null,
+  sensor_type varchar(40) null,
+  kind varchar(16) not null,
+  direction varchar(8) not null default 'above',
+  threshold double not null default 0,
+  hysteresis double not null default 0,
+  window_size int unsigned not null default 0,
+  cooldown_seconds int unsigned not null default 0,
+  enabled tinyint(1) not null default 1,
+  created_at timestamp not null default current_timestamp,
+  key idx_alert_rules_sensor (sensor_id),
+  key idx_alert_rules_type (sensor_type),
+  constraint alert_rules_sensor_id_foreign foreign key (sensor_id) references sensors (id) on delete cascade
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
+
+create table if not exists alert_log (
+  id bigint unsigned not null auto_increment primary key,
+  rule_id bigint unsigned not null,
+  sensor_id bigint unsigned not null,
+  kind varchar(16) not null,
+  state varchar(16) not null,
+  value double null,
+  metric double not null,
+  threshold double not null,
+  instance_id varchar(64) null,
+  created_at timestamp(3) not null,
+  key idx_alert_log_time (created_at),
+  key idx_alert_log_sensor_time (sensor_id, created_at),
+  constraint alert_log_sensor_id_foreign foreign key (sensor_id) references sensors (id) on delete cascade
+) engine = InnoDB default charset = utf8mb4 collate = utf8mb4_unicode_ci;
@@ -0,0 +1,45 @@
+-- Indecși pentru interogările pe serii de timp din sensor_readings.
+--
+-- (sensor_id, created_at, value) acoperă statistics, anomalies și agregarea în memorie:
+-- range scan pe index fără acces la rândurile din clustered index.
+--
+-- (sensor_id) și (sensor_id, created_at) devin prefixe redundante ale indexului nou și sunt șterse
+-- după ce acesta există (FK-ul pe sensor_id are nevoie de un index care începe cu sensor_id).
+-- Indexul pe created_at rămâne pentru globalStream (order by created_at desc limit N, scan invers).
+--
+-- Dovezi înainte/după (EXPLAIN, EXPLAIN ANALYZE, timpi): docs/migration-evidence/, generate cu scripts/migration-evidence.sh.
+
+alter table sensor_readings
+  add index idx_readings_sensor_time_value (sensor_id, created_at, value),
+  algorithm = inplace, lock = none;
+
+set @ddl = (select if(count(*) > 0,
+    'alter table sensor_readings drop index sensor_readings_sensor_id_created_at_index',
+    'select 1')
+  from information_schema.statistics
+  where table_schema = database() and table_name = 'sensor_readings'
+    and index_name = 'sensor_readings_sensor_id_created_at_index');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+set @ddl = (select if(count(*) > 0,
+    'alter table sensor_readings drop index sensor_readings_sensor_id_index',
+    'select 1')
+  from information_schema.statistics
+  where table_schema = database() and table_name = 'sensor_readings'
+    and index_name = 'sensor_readings_sensor_id_index');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+-- bazele unde indexul pe created_at lipsește (ex. create manual) îl primesc acum
+set @ddl = (select if(count(*) = 0,
+    'alter table sensor_readings add index sensor_readings_created_at_index (created_at), algorithm = inplace, lock = none',
+    'select 1')
+  from information_schema.statistics
+  where table_schema = database() and table_name = 'sensor_readings'
+    and column_name = 'created_at' and seq_in_index = 1);
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
@@ -0,0 +1,21 @@
+-- Coloane generate pentru bucket-urile de agregare (/api/sensors/{id}/aggregates).
+--
+-- Înainte, agregarea grupa după DATE_FORMAT(created_at, ...): expresia se calcula pe fiecare rând
+-- și gruparea nu putea folosi ordinea indexului.
+-- Cu (sensor_id, bucket_hour, created_at, value) rândurile vin deja ordonate pe bucket, deci group by
+-- se face din index; created_at este în index ca filtrul de început al ferestrei să nu citească rândul.
+--
+-- Coloanele sunt VIRTUAL: nu ocupă spațiu în rând, valoarea se materializează doar în index.
+-- Bucket-ul se calculează în fusul orar al sesiunii care scrie, deci toate sesiunile sunt fixate pe UTC:
+-- backend-ul prin hikari connection-init-sql, Laravel prin 'timezone' în config/database.php.
+--
+-- Dovezi înainte/după (EXPLAIN, EXPLAIN ANALYZE, timpi): docs/migration-evidence/, generate cu scripts/migration-evidence.sh.
+
+alter table sensor_readings
+  add column bucket_hour datetime generated always as (cast(date_format(created_at, '%Y-%m-%d %H:00:00') as datetime)) virtual,
+  add column bucket_day date generated always as (cast(created_at as date)) virtual;
+
+alter table sensor_readings
+  add index idx_readings_sensor_hour (sensor_id, bucket_hour, created_at, value),
+  add index idx_readings_sensor_day (sensor_id, bucket_day, created_at, value),
+  algorithm = inplace, lock = none;
@@ -0,0 +1,196 @@
+package sdi.iot.alerts;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import sdi.iot.cluster.SensorOwnershipService;
+import sdi.iot.model.AlertRule;
+import sdi.iot.model.Sensor;
+import sdi.iot.repo.AlertRuleRepository;
+import sdi.iot.repo.SensorRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AlertEngineTest {
+    private static final long SENSOR = 1L;
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final AlertRuleRepository rules = mock(AlertRuleRepository.class);
+    private final SensorRepository sensors = mock(SensorRepository.class);
+    private final SensorOwnershipService ownership = mock(SensorOwnershipService.class);
+    private final List<Object> published = new ArrayList<>();
+    private final ApplicationEventPublisher publisher = published::add;
+    private AlertEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        Sensor sensor = new Sensor();
+        sensor.setId(SENSOR);
+        sensor.setType("temperatura");
+        when(sensors.findAll()).thenReturn(List.of(sensor));
+        when(ownership.owns(anyLong())).thenReturn(true);
+        engine = new AlertEngine(rules, sensors, ownership, publisher);
+    }
+
+    @Test
+    void thresholdFiresOnceAndResolvesOnlyPastHysteresis() {
+        load(rule(1, "threshold", 30, 2, 0, 0));
+
+        engine.onReading(SENSOR, 31, at(0));
+        engine.onReading(SENSOR, 32, at(1));
+        engine.onReading(SENSOR, 29, at(2));
+        assertEquals(List.of(AlertEvent.State.FIRED), states());
+
+        engine.onReading(SENSOR, 27.5, at(3));
+        assertEquals(List.of(AlertEvent.State.FIRED, AlertEvent.State.RESOLVED), states());
+        assertTrue(engine.activeAlerts().isEmpty());
+    }
+
+    @Test
+    void cooldownSuppressesRefiringUntilItElapses() {
+        load(rule(1, "threshold", 30, 0, 0, 60));
+
+        engine.onReading(SENSOR, 31, at(0));
+        engine.onReading(SENSOR, 20, at(5));
+        engine.onReading(SENSOR, 31, at(10));
+        assertEquals(List.of(AlertEvent.State.FIRED, AlertEvent.State.RESOLVED), states());
+
+        engine.onReading(SENSOR, 31, at(61));
+        assertEquals(List.of(AlertEvent.State.FIRED, AlertEvent.State.RESOLVED, AlertEvent.State.FIRED), states());
+    }
+
+    @Test
+    void rateComparesAgainstThePreviousReading() {
+        load(rule(1, "rate", 5, 0, 0, 0));
+
+        engine.onReading(SENSOR, 20, at(0));
+        engine.onReading(SENSOR, 21, at(1));
+        assertTrue(published.isEmpty());
+
+        engine.onReading(SENSOR, 40, at(2));
+        AlertEvent fired = single();
+        assertEquals(AlertEvent.State.FIRED, fired.state());
+        assertEquals(19.0, fired.metric(), 1e-9);
+    }
+
+    @Test
+    void rateIgnoresOutOfOrderReadings() {
+        load(rule(1, "rate", 5, 0, 0, 0));
+
+        engine.onReading(SENSOR, 20, at(10));
+        engine.onReading(SENSOR, 90, at(5));
+        engine.onReading(SENSOR, 21, at(11));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void zscoreFiresOnASpikeAfterTheWindowFills() {
+        load(rule(1, "zscore", 3, 0, 5, 0).direction("both"));
+
+        for (int i = 0; i < 10; i++) engine.onReading(SENSOR, i % 2 == 0 ? 10 : 11, at(i));
+        assertTrue(published.isEmpty());
+
+        engine.onReading(SENSOR, 20, at(10));
+        AlertEvent fired = single();
+        assertEquals(AlertEvent.State.FIRED, fired.state());
+        assertTrue(fired.metric() > 3);
+    }
+
+    @Test
+    void staleFiresAfterTheWindowAndResolvesOnTheNextReading() {
+        load(rule(1, "stale", 10, 0, 10, 0));
+
+        engine.onReading(SENSOR, 21, at(0));
+        engine.checkStale(at(5));
+        assertTrue(published.isEmpty());
+
+        engine.checkStale(at(11));
+        AlertEvent fired = single();
+        assertEquals(AlertEvent.State.FIRED, fired.state());
+        assertNull(fired.value());
+        assertEquals(11.0, fired.metric(), 1e-9);
+
+        engine.onReading(SENSOR, 21, at(12));
+        assertEquals(List.of(AlertEvent.State.FIRED, AlertEvent.State.RESOLVED), states());
+    }
+
+    @Test
+    void staleCountsFromFirstCheckWhenTheSensorNeverReported() {
+        load(rule(1, "stale", 10, 0, 10, 0));
+
+        engine.checkStale(at(0));
+        engine.checkStale(at(9));
+        assertTrue(published.isEmpty());
+
+        engine.checkStale(at(11));
+        assertEquals(List.of(AlertEvent.State.FIRED), states());
+    }
+
+    @Test
+    void staleClockDoesNotLeakIntoTheFirstRate() {
+        load(rule(1, "stale", 10, 0, 10, 0), rule(2, "rate", 5, 0, 0, 0));
+
+        engine.checkStale(at(10));
+        // A reading older than the stale check must still count as the first one
+        engine.onReading(SENSOR, 21, at(9));
+        engine.onReading(SENSOR, 21.5, at(11));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void reloadDropsRulesForSensorsThatNoLongerMatch() {
+        load(rule(1, "threshold", 30, 0, 0, 0));
+        engine.onReading(SENSOR, 31, at(0));
+
+        load();
+        engine.onReading(SENSOR, 31, at(100));
+        assertEquals(List.of(AlertEvent.State.FIRED), states());
+        assertEquals(0, engine.stats().trackedSensors());
+    }
+
+    private void load(RuleBuilder... builders) {
+        List<AlertRule> enabled = new ArrayList<>();
+        for (RuleBuilder b : builders) enabled.add(b.rule);
+        when(rules.findByEnabledTrue()).thenReturn(enabled);
+        engine.reloadRules();
+    }
+
+    private static RuleBuilder rule(long id, String kind, double threshold, double hysteresis,
+                                    int windowSize, int cooldownSeconds) {
+        AlertRule r = new AlertRule();
+        r.setId(id);
+        r.setSensorId(SENSOR);
+        r.setKind(kind);
+        r.setThreshold(threshold);
+        r.setHysteresis(hysteresis);
+        r.setWindowSize(windowSize);
+        r.setCooldownSeconds(cooldownSeconds);
+        return new RuleBuilder(r);
+    }
+
+    private record RuleBuilder(AlertRule rule) {
+        RuleBuilder direction(String direction) {
+            rule.setDirection(direction);
+            return this;
+        }
+    }
+
+    private static Instant at(long seconds) {
+        return T0.plusSeconds(seconds);
+    }
+
+    private List<AlertEvent.State> states() {
+        return published.stream().map(e -> ((AlertEvent) e).state()).toList();
+    }
+
+    private AlertEvent single() {
+        assertEquals(1, published.size(), () -> "events: " + published);
+        return (AlertEvent) published.get(0);
+    }
+}
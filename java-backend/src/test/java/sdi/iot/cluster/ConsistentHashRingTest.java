@@ -0,0 +1,66 @@
+package sdi.iot.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    private static final int SENSORS = 100_000;
+    private static final int VIRTUAL_NODES = 64;
+
+    @Test
+    void spreadsSensorsEvenlyAcrossMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        Map<String, Integer> perMember = new HashMap<>();
+        for (long id = 1; id <= SENSORS; id++) perMember.merge(ring.ownerOf(id), 1, Integer::sum);
+
+        assertEquals(4, perMember.size());
+        double fair = SENSORS / 4.0;
+        perMember.forEach((member, n) ->
+                assertTrue(Math.abs(n - fair) < fair * 0.25, () -> member + " owns " + n + " of " + SENSORS));
+    }
+
+    @Test
+    void addingAMemberOnlyMovesSensorsToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d", "e"), VIRTUAL_NODES);
+        int moved = 0;
+        for (long id = 1; id <= SENSORS; id++) {
+            String was = before.ownerOf(id);
+            String now = after.ownerOf(id);
+            if (!was.equals(now)) {
+                moved++;
+                assertEquals("e", now, "sensor " + id + " moved between existing members");
+            }
+        }
+        double share = (double) moved / SENSORS;
+        assertTrue(share > 0.5 / 5 && share < 1.5 / 5, "moved share " + share + ", expected about 1/5");
+    }
+
+    @Test
+    void removingAMemberOnlyMovesItsSensors() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c", "d"), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        for (long id = 1; id <= SENSORS; id++) {
+            String was = before.ownerOf(id);
+            if (!"d".equals(was)) assertEquals(was, after.ownerOf(id), "sensor " + id + " moved without reason");
+        }
+    }
+
+    @Test
+    void ownerDoesNotDependOnMemberOrder() {
+        ConsistentHashRing x = new ConsistentHashRing(List.of("a", "b", "c"), VIRTUAL_NODES);
+        ConsistentHashRing y = new ConsistentHashRing(List.of("c", "a", "b", "a"), VIRTUAL_NODES);
+        assertEquals(List.of("a", "b", "c"), y.members());
+        for (long id = 1; id <= 1_000; id++) assertEquals(x.ownerOf(id), y.ownerOf(id));
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertNull(new ConsistentHashRing(List.of(), VIRTUAL_NODES).ownerOf(42));
+    }
+}
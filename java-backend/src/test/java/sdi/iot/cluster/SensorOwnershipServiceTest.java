@@ -0,0 +1,131 @@
+package sdi.iot.cluster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import sdi.iot.model.ClusterNode;
+import sdi.iot.repo.ClusterNodeRepository;
+import sdi.iot.repo.SensorLeaseRepository;
+import sdi.iot.repo.SensorRepository;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SensorOwnershipServiceTest {
+    private static final long TTL_MS = 15_000;
+    private static final int VIRTUAL_NODES = 64;
+
+    private final ClusterNodeRepository nodes = mock(ClusterNodeRepository.class);
+    private final SensorLeaseRepository leases = mock(SensorLeaseRepository.class);
+    private final SensorRepository sensors = mock(SensorRepository.class);
+    private final List<SensorOwnershipChanged> published = new ArrayList<>();
+    private final ApplicationEventPublisher publisher = e -> published.add((SensorOwnershipChanged) e);
+    private SensorOwnershipService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SensorOwnershipService(nodes, leases, sensors, publisher);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "configuredInstanceId", "a");
+        ReflectionTestUtils.setField(service, "baseUrl", "http://a");
+        ReflectionTestUtils.setField(service, "leaseTtlMs", TTL_MS);
+        ReflectionTestUtils.setField(service, "virtualNodes", VIRTUAL_NODES);
+        service.resolveInstanceId();
+        when(leases.tryInsert(anyLong(), eq("a"), eq(TTL_MS))).thenReturn(1);
+    }
+
+    @Test
+    void acquiresFreeLeasesForItsRingShare() {
+        when(nodes.findLive(TTL_MS)).thenReturn(members("a"));
+        when(sensors.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(leases.findHeldSensorIds("a")).thenReturn(List.of(1L, 2L, 3L));
+
+        service.rebalance();
+
+        verify(nodes).heartbeat("a", "http://a");
+        verify(leases, never()).tryTakeOver(anyLong(), anyString(), anyLong());
+        assertEquals(Set.of(1L, 2L, 3L), service.ownedSensorIds());
+        assertEquals(List.of(new SensorOwnershipChanged(Set.of(1L, 2L, 3L), Set.of())), published);
+    }
+
+    @Test
+    void takesOverOnlyLeasesTheDatabaseGrants() {
+        when(nodes.findLive(TTL_MS)).thenReturn(members("a"));
+        when(sensors.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(leases.tryInsert(2L, "a", TTL_MS)).thenReturn(0);
+        when(leases.tryInsert(3L, "a", TTL_MS)).thenReturn(0);
+        // 2 had expired and is taken over; 3 is still held by another instance
+        when(leases.tryTakeOver(2L, "a", TTL_MS)).thenReturn(1);
+        when(leases.tryTakeOver(3L, "a", TTL_MS)).thenReturn(0);
+        when(leases.findHeldSensorIds("a")).thenReturn(List.of(1L, 2L));
+
+        service.rebalance();
+
+        verify(leases, never()).tryTakeOver(eq(1L), anyString(), anyLong());
+        assertEquals(Set.of(1L, 2L), service.ownedSensorIds());
+        assertTrue(service.owns(2L));
+        assertFalse(service.owns(3L));
+    }
+
+    @Test
+    void releasesSensorsThatMoveToANewMemberAndRenewsTheRest() {
+        List<Long> ids = LongStream.rangeClosed(1, 200).boxed().toList();
+        ConsistentHashRing twoMembers = new ConsistentHashRing(List.of("a", "b"), VIRTUAL_NODES);
+        Set<Long> moved = new HashSet<>();
+        Set<Long> kept = new HashSet<>();
+        for (Long id : ids) (twoMembers.ownerOf(id).equals("b") ? moved : kept).add(id);
+        assertFalse(moved.isEmpty());
+
+        when(sensors.findAllIds()).thenReturn(ids);
+        when(nodes.findLive(TTL_MS)).thenReturn(members("a")).thenReturn(members("a", "b"));
+        when(leases.findHeldSensorIds("a")).thenReturn(ids).thenReturn(List.copyOf(kept));
+
+        service.rebalance();
+        service.rebalance();
+
+        verify(leases).release("a", moved);
+        verify(leases).renew("a", kept, TTL_MS);
+        assertEquals(kept, service.ownedSensorIds());
+        assertEquals(new SensorOwnershipChanged(Set.of(), moved), published.get(1));
+    }
+
+    @Test
+    void dropsLocalLeasesWhenTheDatabaseFails() {
+        when(sensors.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(nodes.findLive(TTL_MS)).thenReturn(members("a")).thenThrow(new QueryTimeoutException("timeout"));
+        when(leases.findHeldSensorIds("a")).thenReturn(List.of(1L, 2L));
+
+        service.rebalance();
+        service.rebalance();
+
+        assertTrue(service.ownedSensorIds().isEmpty());
+        assertEquals(new SensorOwnershipChanged(Set.of(), Set.of(1L, 2L)), published.get(1));
+    }
+
+    @Test
+    void ownsEverythingAndTouchesNoTablesWhenDisabled() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        service.rebalance();
+
+        assertTrue(service.owns(42L));
+        verifyNoInteractions(nodes, sensors);
+        assertTrue(published.isEmpty());
+    }
+
+    private static List<ClusterNode> members(String... ids) {
+        List<ClusterNode> out = new ArrayList<>();
+        for (String id : ids) {
+            ClusterNode n = new ClusterNode();
+            n.setInstanceId(id);
+            out.add(n);
+        }
+        return out;
+    }
+}